@@ -0,0 +1,78 @@
+package com.youdevise.variance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.youdevise.variance.Variant;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private Integer integerValue = 12345;
+    private Double doubleValue = 123.45;
+    private String integerString = "12345";
+    private String doubleString = "123.45";
+    
+    private Variant integerVariant = Variant.of(integerValue);
+    private Variant stringVariant = Variant.of(integerString);
+    
+    @Benchmark
+    public Variant wrap_integer() {
+        return Variant.of(integerValue);
+    }
+    
+    @Benchmark
+    public Variant wrap_primitive_int() {
+        return Variant.ofInt(12345);
+    }
+    
+    @Benchmark
+    public int integer_to_int() {
+        return Variant.of(integerValue).intValue();
+    }
+    
+    @Benchmark
+    public long integer_to_long() {
+        return integerVariant.as(Long.class);
+    }
+    
+    @Benchmark
+    public double double_to_double() {
+        return Variant.of(doubleValue).doubleValue();
+    }
+    
+    @Benchmark
+    public String integer_to_string() {
+        return integerVariant.as(String.class);
+    }
+    
+    @Benchmark
+    public String double_to_string() {
+        return Variant.of(doubleValue).toString();
+    }
+    
+    @Benchmark
+    public int string_to_int() {
+        return stringVariant.intValue();
+    }
+    
+    @Benchmark
+    public double string_to_double() {
+        return Variant.of(doubleString).doubleValue();
+    }
+    
+}
@@ -0,0 +1,82 @@
+package com.youdevise.variance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.youdevise.variance.Conversion;
+import com.youdevise.variance.ImplicitTypeConversions;
+import com.youdevise.variance.MatchingTypeConversionContext;
+import com.youdevise.variance.TypeConversionContext;
+import com.youdevise.variance.Variant;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImplicitContextDepthBenchmark {
+
+    @Param({ "1", "4", "16" })
+    public int depth;
+    
+    private TypeConversionContext extension;
+    private Integer value = 12;
+    
+    @Setup(Level.Trial)
+    public void enter() {
+        extension = MatchingTypeConversionContext.builder()
+                .register(Character.class, String.class, new Function<Character, String>() {
+                    @Override public String apply(Character arg0) { return String.valueOf(arg0); }
+                })
+                .build();
+        for (int i = 0; i < depth; i++) {
+            ImplicitTypeConversions.enterExtended(extension);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void exit() {
+        for (int i = 0; i < depth; i++) {
+            ImplicitTypeConversions.exit();
+        }
+    }
+    
+    @Benchmark
+    public Conversion<String> resolve_through_chain() {
+        return ImplicitTypeConversions.current().conversionFor(Integer.class, String.class);
+    }
+    
+    @Benchmark
+    public String convert_through_chain() {
+        return Variant.of(value).as(String.class);
+    }
+    
+    @Benchmark
+    public double convert_number_through_chain() {
+        return Variant.of(value).doubleValue();
+    }
+    
+    @Benchmark
+    public TypeConversionContext enter_and_exit() {
+        ImplicitTypeConversions.enterExtended(extension);
+        TypeConversionContext current = ImplicitTypeConversions.current();
+        ImplicitTypeConversions.exit();
+        return current;
+    }
+    
+}
@@ -0,0 +1,77 @@
+package com.youdevise.variance.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.Lists;
+import com.youdevise.variance.Variant;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterableConversionBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int size;
+    
+    private Variant integers;
+    private Variant strings;
+    private Variant column;
+    
+    @Setup(Level.Trial)
+    public void fill() {
+        List<Integer> integerValues = Lists.newArrayListWithCapacity(size);
+        List<String> stringValues = Lists.newArrayListWithCapacity(size);
+        int[] columnValues = new int[size];
+        for (int i = 0; i < size; i++) {
+            integerValues.add(i);
+            stringValues.add(Integer.toString(i));
+            columnValues[i] = i;
+        }
+        integers = Variant.of(integerValues);
+        strings = Variant.of(stringValues);
+        column = Variant.of(columnValues);
+    }
+    
+    @Benchmark
+    public void integers_to_strings(Blackhole blackhole) {
+        for (String value : integers.asIterableOf(String.class)) {
+            blackhole.consume(value);
+        }
+    }
+    
+    @Benchmark
+    public void strings_to_integers(Blackhole blackhole) {
+        for (Integer value : strings.asIterableOf(Integer.class)) {
+            blackhole.consume(value);
+        }
+    }
+    
+    @Benchmark
+    public Double[] integers_to_double_array() {
+        return integers.asArrayOf(Double.class);
+    }
+    
+    @Benchmark
+    public double[] column_to_primitive_doubles() {
+        return column.asDoubleArray();
+    }
+    
+}
@@ -0,0 +1,100 @@
+package com.youdevise.variance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.youdevise.variance.CachingTypeConverterRegistry;
+import com.youdevise.variance.TypeConverterRegistryBuilder;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryLookupBenchmark {
+
+    private static final int COLD_BATCH_SIZE = 10000;
+    
+    @State(Scope.Thread)
+    public static class ColdRegistries {
+        private final CachingTypeConverterRegistry[] registries = new CachingTypeConverterRegistry[COLD_BATCH_SIZE];
+        private int next;
+        
+        @Setup(Level.Iteration)
+        public void cool() {
+            for (int i = 0; i < registries.length; i++) {
+                registries[i] = registry();
+            }
+            next = 0;
+        }
+        
+        CachingTypeConverterRegistry next() {
+            return registries[next++];
+        }
+    }
+    
+    private CachingTypeConverterRegistry warmRegistry;
+    
+    @Setup(Level.Trial)
+    public void warm() {
+        warmRegistry = registry();
+        warmRegistry.getConverter(Integer.class, String.class);
+        warmRegistry.hasConverter(Integer.class, StringBuilder.class);
+    }
+    
+    private static CachingTypeConverterRegistry registry() {
+        return new TypeConverterRegistryBuilder()
+                .register(Object.class, String.class, Functions.toStringFunction())
+                .register(Number.class, String.class, new Function<Number, String>() {
+                    @Override public String apply(Number arg0) { return arg0.toString(); }
+                })
+                .register(Number.class, Double.class, new Function<Number, Double>() {
+                    @Override public Double apply(Number arg0) { return arg0.doubleValue(); }
+                })
+                .register(String.class, Integer.class, new Function<String, Integer>() {
+                    @Override public Integer apply(String arg0) { return Integer.parseInt(arg0); }
+                })
+                .build();
+    }
+    
+    @Benchmark
+    public Object warm_hit() {
+        return warmRegistry.getConverter(Integer.class, String.class);
+    }
+    
+    @Benchmark
+    public boolean warm_negative_hit() {
+        return warmRegistry.hasConverter(Integer.class, StringBuilder.class);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = COLD_BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = COLD_BATCH_SIZE)
+    public Object cold_miss(ColdRegistries cold) {
+        return cold.next().getConverter(Integer.class, String.class);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = COLD_BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = COLD_BATCH_SIZE)
+    public boolean cold_negative_miss(ColdRegistries cold) {
+        return cold.next().hasConverter(Integer.class, StringBuilder.class);
+    }
+    
+}
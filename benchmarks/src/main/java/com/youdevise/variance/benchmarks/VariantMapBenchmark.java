@@ -0,0 +1,66 @@
+package com.youdevise.variance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.youdevise.variance.Variant;
+import com.youdevise.variance.VariantMap;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariantMapBenchmark {
+
+    @Param({ "16", "10000" })
+    public int size;
+    
+    private VariantMap map;
+    private String[] keys;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void fill() {
+        map = new VariantMap();
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            map.put(Variant.of(keys[i]), Variant.ofInt(i));
+        }
+    }
+    
+    private String nextKey() {
+        next = (next + 1) % size;
+        return keys[next];
+    }
+    
+    @Benchmark
+    public Variant get_by_raw_key() {
+        return map.get(nextKey());
+    }
+    
+    @Benchmark
+    public Variant get_by_variant_key() {
+        return map.get(Variant.of(nextKey()));
+    }
+    
+    @Benchmark
+    public Variant put_existing_key() {
+        return map.put(Variant.of(nextKey()), Variant.ofInt(next));
+    }
+    
+}
@@ -0,0 +1,46 @@
+package com.youdevise.variance;
+
+final class BooleanVariant extends Variant {
+
+    private static final long serialVersionUID = -1780384465210955373L;
+    
+    private final boolean value;
+    
+    BooleanVariant(boolean value, TypeConversionContext boundContext) {
+        super(boundContext);
+        this.value = value;
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new BooleanVariant(value, boundContext);
+    }
+    
+    @Override
+    public Class<?> valueClass() {
+        return Boolean.class;
+    }
+    
+    @Override
+    public int hashCode() {
+        return value ? 1231 : 1237;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BooleanVariant) {
+            return ((BooleanVariant) o).value == value;
+        }
+        return super.equals(o);
+    }
+    
+    @Override
+    boolean hasValue(Object value) {
+        return value instanceof Boolean && ((Boolean) value).booleanValue() == this.value;
+    }
+    
+    @Override
+    public Object get() {
+        return value;
+    }
+}
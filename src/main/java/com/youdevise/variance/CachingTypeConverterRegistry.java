@@ -1,30 +1,46 @@
 package com.youdevise.variance;
 
-import java.util.concurrent.ExecutionException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.base.Function;
-import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
 
 public class CachingTypeConverterRegistry implements TypeConverterRegistry {
     
-    private static final class ConverterNotFoundException extends Exception {
-        private static final long serialVersionUID = 560390370659936157L;
+    public static final int UNBOUNDED = -1;
+    
+    public static final class Statistics {
+        private final long hitCount;
+        private final long negativeHitCount;
+        private final long missCount;
+        private final long evictionCount;
+        
+        public Statistics(long hitCount, long negativeHitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.negativeHitCount = negativeHitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+        
+        public long hitCount() { return hitCount; }
+        public long negativeHitCount() { return negativeHitCount; }
+        public long missCount() { return missCount; }
+        public long evictionCount() { return evictionCount; }
+        
+        @Override public String toString() {
+            return String.format("Statistics{hitCount=%s, negativeHitCount=%s, missCount=%s, evictionCount=%s}",
+                                 hitCount, negativeHitCount, missCount, evictionCount);
+        }
     }
     
-    private final Cache<ConversionKey, Function<?, ?>> cache = CacheBuilder.newBuilder()
-            .build(new CacheLoader<ConversionKey, Function<?, ?>>() {
-                @Override public Function<?, ?> load(ConversionKey key) throws ConverterNotFoundException {
-                    if (innerRegistry.hasConverter(key.sourceClass, key.targetClass)) {
-                        return innerRegistry.getConverter(key.sourceClass, key.targetClass);
-                    }
-                    throw new ConverterNotFoundException();
-                }
-            });
-
+    private static final Function<Object, Object> NO_CONVERTER = new Function<Object, Object>() {
+        @Override public Object apply(Object o) {
+            throw new IllegalStateException("Placeholder for a missing converter cannot be applied");
+        }
+    };
     
     private static final class ConversionKey {
         private final Class<?> sourceClass;
@@ -34,24 +50,31 @@ public class CachingTypeConverterRegistry implements TypeConverterRegistry {
             this.sourceClass = sourceClass;
             this.targetClass = targetClass;
         }
-        
-        @Override public boolean equals(Object other) {
-            if (other instanceof ConversionKey) {
-                return ((ConversionKey) other).sourceClass.equals(sourceClass)
-                        && ((ConversionKey) other).targetClass.equals(targetClass);
-            }
-            return false;
-        }
-        
-        @Override public int hashCode() {
-            return Objects.hashCode(sourceClass, targetClass);
-        }
     }
     
+    private final ConversionTable<Function<?, ?>> cache = new ConversionTable<Function<?, ?>>();
+    private final Queue<ConversionKey> insertionOrder = new ConcurrentLinkedQueue<ConversionKey>();
+    private final AtomicInteger size = new AtomicInteger();
+    
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong negativeHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    
     private final TypeConverterRegistry innerRegistry;
+    private final int maximumSize;
+    private final boolean recordStatistics;
     
     public CachingTypeConverterRegistry(TypeConverterRegistry innerRegistry) {
+        this(innerRegistry, UNBOUNDED, false);
+    }
+    
+    public CachingTypeConverterRegistry(TypeConverterRegistry innerRegistry, int maximumSize, boolean recordStatistics) {
+        Preconditions.checkArgument(maximumSize == UNBOUNDED || maximumSize > 0,
+                                    "Maximum cache size must be positive, or UNBOUNDED, but was %s", maximumSize);
         this.innerRegistry = innerRegistry;
+        this.maximumSize = maximumSize;
+        this.recordStatistics = recordStatistics;
     }
     
     @Override
@@ -66,14 +89,63 @@ public class CachingTypeConverterRegistry implements TypeConverterRegistry {
         return converter;
     }
     
+    public int size() {
+        return size.get();
+    }
+    
+    public Statistics statistics() {
+        return new Statistics(hitCount.get(), negativeHitCount.get(), missCount.get(), evictionCount.get());
+    }
+    
+    @Override
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceClass, Class<T> targetClass) {
-        ConversionKey key = new ConversionKey(sourceClass, targetClass);
-        try {
-            return (Function) cache.get(key);
-        } catch (ExecutionException e) {
+    public <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceClass, Class<T> targetClass) {
+        Function<?, ?> converter = cache.get(sourceClass, targetClass);
+        if (converter == null) {
+            record(missCount);
+            converter = load(sourceClass, targetClass);
+            Function<?, ?> existing = cache.putIfAbsent(sourceClass, targetClass, converter);
+            if (existing == null) {
+                inserted(sourceClass, targetClass);
+            } else {
+                converter = existing;
+            }
+        } else {
+            record(converter == NO_CONVERTER ? negativeHitCount : hitCount);
+        }
+        if (converter == NO_CONVERTER) {
             return null;
         }
+        return (Function) converter;
+    }
+    
+    private Function<?, ?> load(Class<?> sourceClass, Class<?> targetClass) {
+        Function<?, ?> converter = innerRegistry.findConverter(sourceClass, targetClass);
+        return converter == null ? NO_CONVERTER : converter;
+    }
+    
+    private void inserted(Class<?> sourceClass, Class<?> targetClass) {
+        size.incrementAndGet();
+        if (maximumSize == UNBOUNDED) {
+            return;
+        }
+        insertionOrder.add(new ConversionKey(sourceClass, targetClass));
+        while (size.get() > maximumSize) {
+            ConversionKey eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            if (cache.remove(eldest.sourceClass, eldest.targetClass)) {
+                size.decrementAndGet();
+                record(evictionCount);
+            }
+        }
+    }
+    
+    private void record(AtomicLong counter) {
+        if (recordStatistics) {
+            counter.incrementAndGet();
+        }
     }
 
 }
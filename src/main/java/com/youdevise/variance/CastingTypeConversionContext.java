@@ -10,9 +10,16 @@ public class CastingTypeConversionContext implements TypeConversionContext {
     @Override public <C> C convert(Object o, Class<C> targetClass) {
         return (C) o;
     }
+    
+    @Override public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+        if (targetClass.isAssignableFrom(sourceClass)) {
+            return Conversion.casting();
+        }
+        return Conversion.impossible();
+    }
 
     @Override
-    public TypeConversionContext extendWith(TypeConversionContext ctx) {
-        return new ChainedTypeConversionContext(ctx, this);
+    public TypeConversionContext extendedWith(TypeConversionContext ctx) {
+        return ChainedTypeConversionContext.of(ctx, this);
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,113 @@
 package com.youdevise.variance;
 
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.MapMaker;
+
 public class ChainedTypeConversionContext implements TypeConversionContext {
 
+    private static final ConcurrentMap<TypeConversionContext, ConcurrentMap<TypeConversionContext, ChainedTypeConversionContext>> interned =
+            new MapMaker().weakKeys().makeMap();
+    
+    public static ChainedTypeConversionContext of(TypeConversionContext primary, TypeConversionContext secondary) {
+        ConcurrentMap<TypeConversionContext, ChainedTypeConversionContext> chains = chainsWithPrimary(primary);
+        ChainedTypeConversionContext chain = chains.get(secondary);
+        if (chain != null) {
+            return chain;
+        }
+        ChainedTypeConversionContext newChain = new ChainedTypeConversionContext(primary, secondary, true);
+        chain = chains.putIfAbsent(secondary, newChain);
+        return chain == null ? newChain : chain;
+    }
+    
+    private static ConcurrentMap<TypeConversionContext, ChainedTypeConversionContext> chainsWithPrimary(TypeConversionContext primary) {
+        ConcurrentMap<TypeConversionContext, ChainedTypeConversionContext> chains = interned.get(primary);
+        if (chains != null) {
+            return chains;
+        }
+        ConcurrentMap<TypeConversionContext, ChainedTypeConversionContext> newChains = new MapMaker().weakKeys().weakValues().makeMap();
+        chains = interned.putIfAbsent(primary, newChains);
+        return chains == null ? newChains : chains;
+    }
+    
     private final TypeConversionContext primary;
     private final TypeConversionContext secondary;
+    private final boolean canonical;
+    private final int hashCode;
+    private volatile CompiledTypeConversionContext compiled;
     
     public ChainedTypeConversionContext(TypeConversionContext primary, TypeConversionContext secondary) {
+        this(primary, secondary, false);
+    }
+    
+    private ChainedTypeConversionContext(TypeConversionContext primary, TypeConversionContext secondary, boolean canonical) {
         this.primary = primary;
         this.secondary = secondary;
+        this.canonical = canonical && ContextStability.of(primary).and(ContextStability.of(secondary)) != ContextStability.VOLATILE;
+        this.hashCode = 31 * primary.hashCode() + secondary.hashCode();
+    }
+    
+    TypeConversionContext primary() {
+        return primary;
+    }
+    
+    TypeConversionContext secondary() {
+        return secondary;
     }
 
     @Override
     public <C> boolean canConvert(Object o, Class<C> targetClass) {
-        return primary.canConvert(o, targetClass) || secondary.canConvert(o, targetClass);
+        return conversionFor(o.getClass(), targetClass).isPossible();
     }
 
     @Override
     public <C> C convert(Object o, Class<C> targetClass) {
-        if (primary.canConvert(o, targetClass)) {
-            return primary.convert(o, targetClass);
+        return conversionFor(o.getClass(), targetClass).apply(o);
+    }
+    
+    @Override
+    public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+        if (canonical) {
+            return compiled().conversionFor(sourceClass, targetClass);
+        }
+        Conversion<C> conversion = primary.conversionFor(sourceClass, targetClass);
+        if (conversion.isPossible()) {
+            return conversion;
         }
-        return secondary.convert(o, targetClass);
+        return secondary.conversionFor(sourceClass, targetClass);
+    }
+    
+    CompiledTypeConversionContext compiled() {
+        CompiledTypeConversionContext result = compiled;
+        if (result == null) {
+            result = CompiledTypeConversionContext.compile(this);
+            compiled = result;
+        }
+        return result;
     }
 
     @Override
     public TypeConversionContext extendedWith(TypeConversionContext ctx) {
-        return new ChainedTypeConversionContext(ctx, this);
+        return of(ctx, this);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ChainedTypeConversionContext)) {
+            return false;
+        }
+        ChainedTypeConversionContext other = (ChainedTypeConversionContext) o;
+        return hashCode == other.hashCode
+            && primary.equals(other.primary)
+            && secondary.equals(other.secondary);
     }
     
 }
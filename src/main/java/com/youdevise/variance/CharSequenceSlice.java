@@ -0,0 +1,78 @@
+package com.youdevise.variance;
+
+final class CharSequenceSlice implements CharSequence {
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    
+    CharSequenceSlice(CharSequence source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+    
+    CharSequence source() {
+        return source;
+    }
+    
+    int start() {
+        return start;
+    }
+    
+    int end() {
+        return end;
+    }
+    
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + length());
+        }
+        return new CharSequenceSlice(source, start + from, start + to);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        return hash;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CharSequenceSlice)) {
+            return false;
+        }
+        CharSequenceSlice other = (CharSequenceSlice) o;
+        if (other.length() != length()) {
+            return false;
+        }
+        for (int i = 0; i < length(); i++) {
+            if (source.charAt(start + i) != other.source.charAt(other.start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
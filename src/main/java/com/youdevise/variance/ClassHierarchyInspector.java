@@ -1,24 +1,87 @@
 package com.youdevise.variance;
 
+import java.lang.reflect.Array;
 import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.Joiner;
-import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Ints;
 
-import static com.google.common.collect.Iterables.filter;
-import static com.google.common.collect.Lists.newLinkedList;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newLinkedHashSet;
 
 public class ClassHierarchyInspector {
     
-    private final Iterable<Class<?>> classes;
+    private final ImmutableSet<Class<?>> classes;
+    private final ImmutableMap<Class<?>, ImmutableSet<Class<?>>> ancestors;
+    private final ImmutableMap<Class<?>, ImmutableList<Class<?>>> nearestSuperclasses;
+    private final ImmutableMap<Class<?>, ImmutableList<Class<?>>> nearestSubclasses;
+    private final ImmutableMap<Class<?>, ImmutableList<Class<?>>> assignableFrom;
+    
+    private final Ordering<Class<?>> mostSpecificFirst = new Ordering<Class<?>>() {
+        @Override public int compare(Class<?> left, Class<?> right) {
+            int byDepth = Ints.compare(ancestors.get(right).size(), ancestors.get(left).size());
+            return byDepth != 0 ? byDepth : left.getName().compareTo(right.getName());
+        }
+    };
     
     public ClassHierarchyInspector(Iterable<Class<?>> classes) {
-        this.classes = classes;
+        this.classes = ImmutableSet.copyOf(classes);
+        
+        Map<Class<?>, Set<Class<?>>> supertypes = Maps.newLinkedHashMap();
+        for (Class<?> klass : this.classes) {
+            supertypes.put(klass, supertypesOf(klass));
+        }
+        
+        ImmutableMap.Builder<Class<?>, ImmutableSet<Class<?>>> ancestors = ImmutableMap.builder();
+        for (Class<?> klass : this.classes) {
+            ancestors.put(klass, ImmutableSet.copyOf(registeredAmong(supertypes.get(klass))));
+        }
+        this.ancestors = ancestors.build();
+        
+        ImmutableMap.Builder<Class<?>, ImmutableList<Class<?>>> nearestSuperclasses = ImmutableMap.builder();
+        for (Class<?> klass : this.classes) {
+            nearestSuperclasses.put(klass, minima(this.ancestors.get(klass)));
+        }
+        this.nearestSuperclasses = nearestSuperclasses.build();
+        
+        Map<Class<?>, Collection<Class<?>>> descendants = Maps.newLinkedHashMap();
+        for (Class<?> klass : this.classes) {
+            for (Class<?> supertype : supertypes.get(klass)) {
+                if (!descendants.containsKey(supertype)) {
+                    descendants.put(supertype, newArrayList());
+                }
+                descendants.get(supertype).add(klass);
+            }
+        }
+        
+        ImmutableMap.Builder<Class<?>, ImmutableList<Class<?>>> nearestSubclasses = ImmutableMap.builder();
+        for (Map.Entry<Class<?>, Collection<Class<?>>> entry : descendants.entrySet()) {
+            nearestSubclasses.put(entry.getKey(), maxima(entry.getValue()));
+        }
+        this.nearestSubclasses = nearestSubclasses.build();
+        
+        ImmutableMap.Builder<Class<?>, ImmutableList<Class<?>>> assignableFrom = ImmutableMap.builder();
+        for (Class<?> klass : this.classes) {
+            Collection<Class<?>> candidates = newArrayList(this.ancestors.get(klass));
+            candidates.add(klass);
+            assignableFrom.put(klass, mostSpecificFirst.immutableSortedCopy(candidates));
+        }
+        this.assignableFrom = assignableFrom.build();
     }
     
     public <S> Class<? super S> nearestClassAssignableFrom(Class<S> klass) {
-        if (Iterables.contains(classes,  klass)) {
+        if (classes.contains(klass)) {
             return klass;
         }
         return nearestSuperclassOf(klass);
@@ -38,21 +101,14 @@ public class ClassHierarchyInspector {
     
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public <S> Collection<Class<? super S>> nearestSuperclassesOf(Class<S> klass) {
-        Iterable<Class<? super S>> superclasses = (Iterable) filter(classes, isSuperclassOf(klass));
-        
-        Collection<Class<? super S>> minima = newLinkedList();
-        for (Class<? super S> superclass : superclasses) {
-            Iterables.removeIf(minima, isSuperclassOf(superclass));
-            if (!Iterables.any(minima, isSubclassOf(superclass))) {
-                minima.add(superclass);
-            }
+        if (classes.contains(klass)) {
+            return (Collection) nearestSuperclasses.get(klass);
         }
-        
-        return minima;
+        return (Collection) minima(registeredAmong(supertypesOf(klass)));
     }
     
     public <T> Class<? extends T> nearestClassAssignableTo(Class<T> klass) {
-        if (Iterables.contains(classes,  klass)) {
+        if (classes.contains(klass)) {
             return klass;
         }
         return nearestSubclassOf(klass);
@@ -71,32 +127,88 @@ public class ClassHierarchyInspector {
     
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public <T> Collection<Class<? extends T>> nearestSubclassesOf(Class<T> klass) {
-        Iterable<Class<? extends T>> subclasses = (Iterable) filter(classes, isSubclassOf(klass));
-        
-        Collection<Class<? extends T>> maxima = newLinkedList();
-        for (Class<? extends T> subclass : subclasses) {
-            Iterables.removeIf(maxima, isSubclassOf(subclass));
-            if (!Iterables.any(maxima, isSuperclassOf(subclass))) {
-                maxima.add(subclass);
+        if (!nearestSubclasses.containsKey(klass)) {
+            return ImmutableList.of();
+        }
+        return (Collection) nearestSubclasses.get(klass);
+    }
+    
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public <S> List<Class<? super S>> classesAssignableFrom(Class<S> klass) {
+        if (classes.contains(klass)) {
+            return (List) assignableFrom.get(klass);
+        }
+        return (List) mostSpecificFirst.immutableSortedCopy(registeredAmong(supertypesOf(klass)));
+    }
+    
+    private Collection<Class<?>> registeredAmong(Collection<Class<?>> candidates) {
+        Collection<Class<?>> registered = newArrayList();
+        for (Class<?> candidate : candidates) {
+            if (classes.contains(candidate)) {
+                registered.add(candidate);
             }
         }
-        
-        return maxima;
+        return registered;
     }
     
-    private <S> Predicate<Class<?>> isSuperclassOf(final Class<?> klass) {
-        return new Predicate<Class<?>>() {
-            @Override public boolean apply(Class<?> otherClass) {
-                return !otherClass.equals(klass) && otherClass.isAssignableFrom(klass);
+    private ImmutableList<Class<?>> minima(Collection<Class<?>> superclasses) {
+        Set<Class<?>> dominated = newLinkedHashSet();
+        for (Class<?> superclass : superclasses) {
+            dominated.addAll(ancestors.get(superclass));
+        }
+        ImmutableList.Builder<Class<?>> minima = ImmutableList.builder();
+        for (Class<?> superclass : superclasses) {
+            if (!dominated.contains(superclass)) {
+                minima.add(superclass);
             }
-        };
+        }
+        return minima.build();
     }
     
-    private <S> Predicate<Class<?>> isSubclassOf(final Class<?> klass) {
-        return new Predicate<Class<?>>() {
-            @Override public boolean apply(Class<?> otherClass) {
-                return !otherClass.equals(klass) && klass.isAssignableFrom(otherClass);
+    private ImmutableList<Class<?>> maxima(Collection<Class<?>> candidates) {
+        Set<Class<?>> subclasses = ImmutableSet.copyOf(candidates);
+        ImmutableList.Builder<Class<?>> maxima = ImmutableList.builder();
+        for (Class<?> subclass : subclasses) {
+            boolean dominated = false;
+            for (Class<?> ancestor : ancestors.get(subclass)) {
+                if (subclasses.contains(ancestor)) {
+                    dominated = true;
+                    break;
+                }
             }
-        };
+            if (!dominated) {
+                maxima.add(subclass);
+            }
+        }
+        return maxima.build();
+    }
+    
+    private static Set<Class<?>> supertypesOf(Class<?> klass) {
+        Set<Class<?>> supertypes = newLinkedHashSet();
+        Deque<Class<?>> pending = new ArrayDeque<Class<?>>();
+        pending.add(klass);
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.remove();
+            if (current != klass && !supertypes.add(current)) {
+                continue;
+            }
+            if (current.getSuperclass() != null) {
+                pending.add(current.getSuperclass());
+            }
+            for (Class<?> implemented : current.getInterfaces()) {
+                pending.add(implemented);
+            }
+        }
+        
+        if (klass.isArray() && !klass.getComponentType().isPrimitive()) {
+            for (Class<?> componentSupertype : supertypesOf(klass.getComponentType())) {
+                supertypes.add(Array.newInstance(componentSupertype, 0).getClass());
+            }
+        }
+        
+        if (!klass.isPrimitive() && klass != Object.class) {
+            supertypes.add(Object.class);
+        }
+        return supertypes;
     }
-}
\ No newline at end of file
+}
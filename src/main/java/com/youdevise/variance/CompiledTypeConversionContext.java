@@ -0,0 +1,77 @@
+package com.youdevise.variance;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+public final class CompiledTypeConversionContext implements TypeConversionContext {
+
+    public static CompiledTypeConversionContext compile(TypeConversionContext ctx) {
+        if (ctx instanceof CompiledTypeConversionContext) {
+            return (CompiledTypeConversionContext) ctx;
+        }
+        List<TypeConversionContext> layers = Lists.newArrayList();
+        flatten(ctx, layers);
+        return new CompiledTypeConversionContext(layers.toArray(new TypeConversionContext[layers.size()]));
+    }
+    
+    private static void flatten(TypeConversionContext ctx, List<TypeConversionContext> layers) {
+        if (ctx instanceof ChainedTypeConversionContext) {
+            flatten(((ChainedTypeConversionContext) ctx).primary(), layers);
+            flatten(((ChainedTypeConversionContext) ctx).secondary(), layers);
+        } else if (ctx instanceof CompiledTypeConversionContext) {
+            for (TypeConversionContext layer : ((CompiledTypeConversionContext) ctx).layers) {
+                layers.add(layer);
+            }
+        } else {
+            layers.add(ctx);
+        }
+    }
+    
+    private final TypeConversionContext[] layers;
+    private final ContextStability stability;
+    
+    private CompiledTypeConversionContext(TypeConversionContext[] layers) {
+        this.layers = layers;
+        this.stability = stabilityOf(layers);
+    }
+    
+    private static ContextStability stabilityOf(TypeConversionContext[] layers) {
+        ContextStability stability = ContextStability.STABLE;
+        for (TypeConversionContext layer : layers) {
+            stability = stability.and(ContextStability.of(layer));
+        }
+        return stability;
+    }
+    
+    ContextStability stability() {
+        return stability;
+    }
+    
+    @Override
+    public <C> boolean canConvert(Object o, Class<C> targetClass) {
+        return conversionFor(o.getClass(), targetClass).isPossible();
+    }
+
+    @Override
+    public <C> C convert(Object o, Class<C> targetClass) {
+        return conversionFor(o.getClass(), targetClass).apply(o);
+    }
+    
+    @Override
+    public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+        for (TypeConversionContext layer : layers) {
+            Conversion<C> conversion = layer.conversionFor(sourceClass, targetClass);
+            if (conversion.isPossible()) {
+                return conversion;
+            }
+        }
+        return Conversion.impossible();
+    }
+
+    @Override
+    public TypeConversionContext extendedWith(TypeConversionContext ctx) {
+        return ChainedTypeConversionContext.of(ctx, this);
+    }
+    
+}
@@ -0,0 +1,96 @@
+package com.youdevise.variance;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.collect.Lists;
+
+final class ContextPropagatingExecutorService implements ExecutorService {
+
+    private final ExecutorService delegate;
+    
+    ContextPropagatingExecutorService(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(ImplicitTypeConversions.capture().wrap(command));
+    }
+    
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return delegate.submit(ImplicitTypeConversions.capture().wrap(task));
+    }
+    
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        return delegate.submit(ImplicitTypeConversions.capture().wrap(task), result);
+    }
+    
+    @Override
+    public Future<?> submit(Runnable task) {
+        return delegate.submit(ImplicitTypeConversions.capture().wrap(task));
+    }
+    
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return delegate.invokeAll(wrapAll(tasks));
+    }
+    
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+    }
+    
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return delegate.invokeAny(wrapAll(tasks));
+    }
+    
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+    }
+    
+    private static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+        ConversionSnapshot snapshot = ImplicitTypeConversions.capture();
+        List<Callable<T>> wrapped = Lists.newArrayListWithCapacity(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(snapshot.wrap(task));
+        }
+        return wrapped;
+    }
+    
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+    
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
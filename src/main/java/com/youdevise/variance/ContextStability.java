@@ -0,0 +1,28 @@
+package com.youdevise.variance;
+
+enum ContextStability {
+    STABLE,
+    IMPLICIT,
+    VOLATILE;
+    
+    static ContextStability of(TypeConversionContext ctx) {
+        if (ctx instanceof MatchingTypeConversionContext || ctx instanceof CastingTypeConversionContext) {
+            return STABLE;
+        }
+        if (ctx == ImplicitTypeConversions.implicitContext) {
+            return IMPLICIT;
+        }
+        if (ctx instanceof CompiledTypeConversionContext) {
+            return ((CompiledTypeConversionContext) ctx).stability();
+        }
+        if (ctx instanceof ChainedTypeConversionContext) {
+            ChainedTypeConversionContext chained = (ChainedTypeConversionContext) ctx;
+            return of(chained.primary()).and(of(chained.secondary()));
+        }
+        return VOLATILE;
+    }
+    
+    ContextStability and(ContextStability other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+}
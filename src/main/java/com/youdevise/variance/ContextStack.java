@@ -0,0 +1,38 @@
+package com.youdevise.variance;
+
+import java.util.Arrays;
+
+final class ContextStack {
+
+    private static final int INITIAL_CAPACITY = 8;
+    
+    private TypeConversionContext[] contexts = new TypeConversionContext[INITIAL_CAPACITY];
+    private int depth = 0;
+    private TypeConversionContext top = null;
+    
+    TypeConversionContext top() {
+        return top;
+    }
+    
+    int depth() {
+        return depth;
+    }
+    
+    void push(TypeConversionContext context) {
+        if (depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, depth * 2);
+        }
+        contexts[depth++] = context;
+        top = context;
+    }
+    
+    void pop() {
+        contexts[--depth] = null;
+        top = depth == 0 ? null : contexts[depth - 1];
+    }
+    
+    ConversionScope enter(TypeConversionContext context) {
+        push(context);
+        return new ConversionScope(this, context, depth);
+    }
+}
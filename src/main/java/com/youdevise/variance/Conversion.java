@@ -0,0 +1,130 @@
+package com.youdevise.variance;
+
+import java.io.IOException;
+
+import com.google.common.base.Function;
+
+public abstract class Conversion<T> implements Function<Object, T> {
+
+    private static final Conversion<Object> IMPOSSIBLE = new Conversion<Object>() {
+        @Override public boolean isPossible() { return false; }
+        
+        @Override public Object apply(Object o) {
+            throw new IllegalArgumentException(String.format("No conversion available for a value of type [%s]", o.getClass()));
+        }
+    };
+    
+    private static final Conversion<Object> CASTING = new Conversion<Object>() {
+        @Override public Object apply(Object o) { return o; }
+    };
+    
+    @SuppressWarnings("unchecked")
+    public static <T> Conversion<T> impossible() {
+        return (Conversion<T>) IMPOSSIBLE;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <T> Conversion<T> casting() {
+        return (Conversion<T>) CASTING;
+    }
+    
+    public static <S, T> Conversion<T> applying(Function<? super S, ? extends T> converter) {
+        return new ApplyingConversion<S, T>(converter);
+    }
+    
+    public boolean isPossible() {
+        return true;
+    }
+    
+    @Override
+    public abstract T apply(Object o);
+    
+    public int applyAsInt(Object o) {
+        return ((Number) apply(o)).intValue();
+    }
+    
+    public long applyAsLong(Object o) {
+        return ((Number) apply(o)).longValue();
+    }
+    
+    public float applyAsFloat(Object o) {
+        return ((Number) apply(o)).floatValue();
+    }
+    
+    public double applyAsDouble(Object o) {
+        return ((Number) apply(o)).doubleValue();
+    }
+    
+    public void appendTo(Object o, Appendable appendable) throws IOException {
+        appendable.append(String.valueOf(apply(o)));
+    }
+    
+    boolean applies(Function<?, ?> converter) {
+        return false;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static final class ApplyingConversion<S, T> extends Conversion<T> {
+        private final Function<? super S, ? extends T> converter;
+        private final ToIntConverter<? super S> intConverter;
+        private final ToLongConverter<? super S> longConverter;
+        private final ToFloatConverter<? super S> floatConverter;
+        private final ToDoubleConverter<? super S> doubleConverter;
+        private final ToAppendableConverter<? super S> appendableConverter;
+        
+        @SuppressWarnings("rawtypes")
+        public ApplyingConversion(Function<? super S, ? extends T> converter) {
+            this.converter = converter;
+            this.intConverter = converter instanceof ToIntConverter ? (ToIntConverter) converter : null;
+            this.longConverter = converter instanceof ToLongConverter ? (ToLongConverter) converter : null;
+            this.floatConverter = converter instanceof ToFloatConverter ? (ToFloatConverter) converter : null;
+            this.doubleConverter = converter instanceof ToDoubleConverter ? (ToDoubleConverter) converter : null;
+            this.appendableConverter = converter instanceof ToAppendableConverter ? (ToAppendableConverter) converter : null;
+        }
+        
+        @Override public T apply(Object o) {
+            return converter.apply((S) o);
+        }
+        
+        @Override boolean applies(Function<?, ?> converter) {
+            return this.converter == converter;
+        }
+        
+        @Override public int applyAsInt(Object o) {
+            if (intConverter == null) {
+                return super.applyAsInt(o);
+            }
+            return intConverter.applyAsInt((S) o);
+        }
+        
+        @Override public long applyAsLong(Object o) {
+            if (longConverter == null) {
+                return super.applyAsLong(o);
+            }
+            return longConverter.applyAsLong((S) o);
+        }
+        
+        @Override public float applyAsFloat(Object o) {
+            if (floatConverter == null) {
+                return super.applyAsFloat(o);
+            }
+            return floatConverter.applyAsFloat((S) o);
+        }
+        
+        @Override public double applyAsDouble(Object o) {
+            if (doubleConverter == null) {
+                return super.applyAsDouble(o);
+            }
+            return doubleConverter.applyAsDouble((S) o);
+        }
+        
+        @Override public void appendTo(Object o, Appendable appendable) throws IOException {
+            if (appendableConverter == null) {
+                super.appendTo(o, appendable);
+                return;
+            }
+            appendableConverter.appendTo((S) o, appendable);
+        }
+    }
+    
+}
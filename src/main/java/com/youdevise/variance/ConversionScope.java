@@ -0,0 +1,37 @@
+package com.youdevise.variance;
+
+import java.io.Closeable;
+
+public final class ConversionScope implements Closeable {
+
+    private final ContextStack stack;
+    private final TypeConversionContext context;
+    private final int depth;
+    private final Thread owner = Thread.currentThread();
+    private boolean closed = false;
+    
+    ConversionScope(ContextStack stack, TypeConversionContext context, int depth) {
+        this.stack = stack;
+        this.context = context;
+        this.depth = depth;
+    }
+    
+    public TypeConversionContext context() {
+        return context;
+    }
+    
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Scope must be closed by the thread that entered it");
+        }
+        if (stack.depth() != depth) {
+            throw new IllegalStateException("Scope closed out of order; close nested scopes first");
+        }
+        stack.pop();
+        closed = true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.youdevise.variance;
+
+import java.util.concurrent.Callable;
+
+public final class ConversionSnapshot {
+
+    private static final ConversionSnapshot EMPTY = new ConversionSnapshot(null);
+    
+    static ConversionSnapshot of(TypeConversionContext context) {
+        return context == null ? EMPTY : new ConversionSnapshot(context);
+    }
+    
+    private final TypeConversionContext context;
+    
+    private ConversionSnapshot(TypeConversionContext context) {
+        this.context = context;
+    }
+    
+    public TypeConversionContext context() {
+        return context;
+    }
+    
+    public ConversionScope enter() {
+        return ImplicitTypeConversions.enterNewScope(context);
+    }
+    
+    public Runnable wrap(final Runnable runnable) {
+        return new Runnable() {
+            @Override public void run() {
+                ConversionScope scope = enter();
+                try {
+                    runnable.run();
+                } finally {
+                    scope.close();
+                }
+            }
+        };
+    }
+    
+    public <V> Callable<V> wrap(final Callable<V> callable) {
+        return new Callable<V>() {
+            @Override public V call() throws Exception {
+                ConversionScope scope = enter();
+                try {
+                    return callable.call();
+                } finally {
+                    scope.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.youdevise.variance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+final class ConversionTable<V> {
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, V>> rows = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, V>>();
+    
+    public V get(Class<?> sourceClass, Class<?> targetClass) {
+        ConcurrentMap<Class<?>, V> row = rows.get(sourceClass);
+        if (row == null) {
+            return null;
+        }
+        return row.get(targetClass);
+    }
+    
+    public V putIfAbsent(Class<?> sourceClass, Class<?> targetClass, V value) {
+        return rowFor(sourceClass).putIfAbsent(targetClass, value);
+    }
+    
+    public boolean remove(Class<?> sourceClass, Class<?> targetClass) {
+        ConcurrentMap<Class<?>, V> row = rows.get(sourceClass);
+        if (row == null) {
+            return false;
+        }
+        return row.remove(targetClass) != null;
+    }
+    
+    private ConcurrentMap<Class<?>, V> rowFor(Class<?> sourceClass) {
+        ConcurrentMap<Class<?>, V> row = rows.get(sourceClass);
+        if (row != null) {
+            return row;
+        }
+        ConcurrentMap<Class<?>, V> newRow = new ConcurrentHashMap<Class<?>, V>();
+        row = rows.putIfAbsent(sourceClass, newRow);
+        return row == null ? newRow : row;
+    }
+    
+}
@@ -0,0 +1,239 @@
+package com.youdevise.variance;
+
+import java.lang.reflect.Array;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+
+public class ConversionView<C> extends AbstractCollection<C> {
+
+    private static final Object NO_SNAPSHOT = new Object();
+    private static final Object UNCACHEABLE = new Object();
+    
+    private static final class Resolved<C> {
+        private final Class<?> sourceClass;
+        private final Conversion<C> conversion;
+        private final Object snapshot;
+        
+        private Resolved(Class<?> sourceClass, Conversion<C> conversion, Object snapshot) {
+            this.sourceClass = sourceClass;
+            this.conversion = conversion;
+            this.snapshot = snapshot;
+        }
+    }
+    
+    private static final class Conversions<C> {
+        private final Object snapshot;
+        private final ConcurrentMap<Class<?>, Conversion<C>> bySourceClass = new ConcurrentHashMap<Class<?>, Conversion<C>>();
+        
+        private Conversions(Object snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+    
+    public static <C> ConversionView<C> of(Iterable<?> source, Class<C> targetClass, TypeConversionContext context) {
+        return new ConversionView<C>(source, targetClass, context);
+    }
+    
+    private final Iterable<?> source;
+    private final Class<C> targetClass;
+    private final TypeConversionContext context;
+    private final ContextStability stability;
+    private volatile Conversions<C> conversions;
+    private Resolved<C> lastResolved;
+    
+    private ConversionView(Iterable<?> source, Class<C> targetClass, TypeConversionContext context) {
+        this.source = source;
+        this.targetClass = targetClass;
+        this.context = context;
+        this.stability = ContextStability.of(context);
+    }
+    
+    public ConversionView<C> memoised() {
+        return new Memoised<C>(this);
+    }
+    
+    public Class<C> targetClass() {
+        return targetClass;
+    }
+    
+    @Override
+    public Iterator<C> iterator() {
+        if (source instanceof DelimitedSequence) {
+            Function<CharSequence, C> parser = TypeConversions.charSequenceEquivalentOf(context.conversionFor(String.class, targetClass));
+            if (parser != null) {
+                return Iterators.transform(((DelimitedSequence) source).slices().iterator(), parser);
+            }
+        }
+        
+        final Iterator<?> sourceIterator = source.iterator();
+        return new Iterator<C>() {
+            @Override public boolean hasNext() {
+                return sourceIterator.hasNext();
+            }
+            
+            @Override public C next() {
+                return convert(sourceIterator.next());
+            }
+            
+            @Override public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+    
+    @Override
+    public int size() {
+        if (source instanceof Collection) {
+            return ((Collection<?>) source).size();
+        }
+        return Iterables.size(source);
+    }
+    
+    C[] toArrayOf(Class<C> componentClass) {
+        Collection<C> elements = source instanceof Collection ? this : Lists.newArrayList(this);
+        @SuppressWarnings("unchecked")
+        C[] results = (C[]) Array.newInstance(componentClass, elements.size());
+        return elements.toArray(results);
+    }
+    
+    C convert(Object element) {
+        return conversionFor(element.getClass()).apply(element);
+    }
+    
+    private Conversion<C> conversionFor(Class<?> sourceClass) {
+        Object snapshot = snapshot();
+        if (snapshot == UNCACHEABLE) {
+            return resolve(sourceClass);
+        }
+        
+        Resolved<C> resolved = lastResolved;
+        if (resolved != null && resolved.sourceClass == sourceClass && resolved.snapshot == snapshot) {
+            return resolved.conversion;
+        }
+        
+        Conversions<C> table = conversions;
+        if (table == null || table.snapshot != snapshot) {
+            table = new Conversions<C>(snapshot);
+            conversions = table;
+        }
+        Conversion<C> conversion = table.bySourceClass.get(sourceClass);
+        if (conversion == null) {
+            conversion = resolve(sourceClass);
+            table.bySourceClass.putIfAbsent(sourceClass, conversion);
+        }
+        lastResolved = new Resolved<C>(sourceClass, conversion, snapshot);
+        return conversion;
+    }
+    
+    private Object snapshot() {
+        switch (stability) {
+            case STABLE:
+                return NO_SNAPSHOT;
+            case IMPLICIT:
+                TypeConversionContext current = ImplicitTypeConversions.current();
+                if (current == null || ContextStability.of(current) == ContextStability.STABLE) {
+                    return current;
+                }
+                return UNCACHEABLE;
+            default:
+                return UNCACHEABLE;
+        }
+    }
+    
+    private Conversion<C> resolve(Class<?> sourceClass) {
+        Conversion<C> conversion = context.conversionFor(sourceClass, targetClass);
+        Preconditions.checkArgument(conversion.isPossible(),
+                                    "Unable to convert a value of type [%s] to [%s] in the current context",
+                                    sourceClass,
+                                    targetClass);
+        return conversion;
+    }
+    
+    private static final class Memoised<C> extends ConversionView<C> {
+        private final ConversionView<C> unmemoised;
+        private final List<C> converted = new ArrayList<C>();
+        private Iterator<?> sourceIterator;
+        private boolean exhausted;
+        
+        private Memoised(ConversionView<C> unmemoised) {
+            super(unmemoised.source, unmemoised.targetClass, unmemoised.context);
+            this.unmemoised = unmemoised;
+        }
+        
+        @Override
+        public ConversionView<C> memoised() {
+            return this;
+        }
+        
+        @Override
+        public Iterator<C> iterator() {
+            return new Iterator<C>() {
+                private int index = 0;
+                
+                @Override public boolean hasNext() {
+                    return available(index);
+                }
+                
+                @Override public C next() {
+                    if (!available(index)) {
+                        throw new NoSuchElementException();
+                    }
+                    return convertedAt(index++);
+                }
+                
+                @Override public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+        
+        @Override
+        public int size() {
+            synchronized (converted) {
+                if (exhausted) {
+                    return converted.size();
+                }
+            }
+            return super.size();
+        }
+        
+        private boolean available(int index) {
+            synchronized (converted) {
+                if (index < converted.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                if (sourceIterator == null) {
+                    sourceIterator = unmemoised.source.iterator();
+                }
+                if (!sourceIterator.hasNext()) {
+                    exhausted = true;
+                    sourceIterator = null;
+                    return false;
+                }
+                converted.add(unmemoised.convert(sourceIterator.next()));
+                return true;
+            }
+        }
+        
+        private C convertedAt(int index) {
+            synchronized (converted) {
+                return converted.get(index);
+            }
+        }
+    }
+}
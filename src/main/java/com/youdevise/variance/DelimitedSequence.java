@@ -0,0 +1,121 @@
+package com.youdevise.variance;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class DelimitedSequence extends AbstractCollection<String> {
+
+    public static DelimitedSequence on(CharSequence source, char delimiter) {
+        return new DelimitedSequence(source, delimiter);
+    }
+    
+    private final CharSequence source;
+    private final char delimiter;
+    private int size = -1;
+    
+    private DelimitedSequence(CharSequence source, char delimiter) {
+        this.source = source;
+        this.delimiter = delimiter;
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return new TokenIterator<String>() {
+            @Override protected String token(int start, int end) {
+                return source.subSequence(start, end).toString();
+            }
+        };
+    }
+    
+    public Iterable<CharSequence> slices() {
+        return new Iterable<CharSequence>() {
+            @Override public Iterator<CharSequence> iterator() {
+                return new TokenIterator<CharSequence>() {
+                    @Override protected CharSequence token(int start, int end) {
+                        return new CharSequenceSlice(source, start, end);
+                    }
+                };
+            }
+        };
+    }
+    
+    private abstract class TokenIterator<T> implements Iterator<T> {
+        private int start = 0;
+        
+        protected abstract T token(int start, int end);
+        
+        @Override public boolean hasNext() {
+            return start <= source.length();
+        }
+        
+        @Override public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int end = endOfTokenAt(start);
+            T token = token(start, end);
+            start = end + 1;
+            return token;
+        }
+        
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+    
+    @Override
+    public int size() {
+        if (size < 0) {
+            int count = 1;
+            for (int i = 0; i < source.length(); i++) {
+                if (source.charAt(i) == delimiter) {
+                    count++;
+                }
+            }
+            size = count;
+        }
+        return size;
+    }
+    
+    public int[] toIntArray() {
+        int[] results = new int[size()];
+        int start = 0;
+        for (int i = 0; i < results.length; i++) {
+            int end = endOfTokenAt(start);
+            results[i] = NumberParsing.parseInt(source, start, end);
+            start = end + 1;
+        }
+        return results;
+    }
+    
+    public long[] toLongArray() {
+        long[] results = new long[size()];
+        int start = 0;
+        for (int i = 0; i < results.length; i++) {
+            int end = endOfTokenAt(start);
+            results[i] = NumberParsing.parseLong(source, start, end);
+            start = end + 1;
+        }
+        return results;
+    }
+    
+    public double[] toDoubleArray() {
+        double[] results = new double[size()];
+        int start = 0;
+        for (int i = 0; i < results.length; i++) {
+            int end = endOfTokenAt(start);
+            results[i] = NumberParsing.parseDouble(source, start, end);
+            start = end + 1;
+        }
+        return results;
+    }
+    
+    private int endOfTokenAt(int start) {
+        int end = start;
+        while (end < source.length() && source.charAt(end) != delimiter) {
+            end++;
+        }
+        return end;
+    }
+}
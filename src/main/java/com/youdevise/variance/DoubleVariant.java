@@ -0,0 +1,79 @@
+package com.youdevise.variance;
+
+final class DoubleVariant extends Variant {
+
+    private static final long serialVersionUID = 7410663398137355281L;
+    
+    private final double value;
+    
+    DoubleVariant(double value, TypeConversionContext boundContext) {
+        super(boundContext);
+        this.value = value;
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new DoubleVariant(value, boundContext);
+    }
+    
+    @Override
+    public Class<?> valueClass() {
+        return Double.class;
+    }
+    
+    @Override
+    public int intValue() {
+        if (convertsByDefault(Double.class, Integer.class, TypeConversions.toInt)) {
+            return (int) value;
+        }
+        return super.intValue();
+    }
+    
+    @Override
+    public long longValue() {
+        if (convertsByDefault(Double.class, Long.class, TypeConversions.toLong)) {
+            return (long) value;
+        }
+        return super.longValue();
+    }
+    
+    @Override
+    public float floatValue() {
+        if (convertsByDefault(Double.class, Float.class, TypeConversions.toFloat)) {
+            return (float) value;
+        }
+        return super.floatValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        if (convertsByDefault(Double.class, Double.class, TypeConversions.toDouble)) {
+            return value;
+        }
+        return super.doubleValue();
+    }
+    
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(value);
+        return (int) (bits ^ (bits >>> 32));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DoubleVariant) {
+            return Double.doubleToLongBits(((DoubleVariant) o).value) == Double.doubleToLongBits(value);
+        }
+        return super.equals(o);
+    }
+    
+    @Override
+    boolean hasValue(Object value) {
+        return value instanceof Double && Double.doubleToLongBits((Double) value) == Double.doubleToLongBits(this.value);
+    }
+    
+    @Override
+    public Object get() {
+        return value;
+    }
+}
@@ -0,0 +1,120 @@
+package com.youdevise.variance;
+
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public final class FrozenTypeConverterDictionary implements TypeConverterDictionary {
+    
+    private static final ClassHierarchyInspector NO_TARGETS = new ClassHierarchyInspector(ImmutableSet.<Class<?>>of());
+    
+    public static FrozenTypeConverterDictionary copyOf(TypeConverterDictionary dictionary) {
+        if (dictionary instanceof FrozenTypeConverterDictionary) {
+            return (FrozenTypeConverterDictionary) dictionary;
+        }
+        return new FrozenTypeConverterDictionary(dictionary);
+    }
+    
+    private final Class<?>[] sourceKeys;
+    private final Class<?>[] targetKeys;
+    private final Function<?, ?>[] converters;
+    private final int mask;
+    
+    private final ImmutableSet<Class<?>> sourceClasses;
+    private final ImmutableMap<Class<?>, ImmutableSet<Class<?>>> targetClasses;
+    private final ClassHierarchyInspector sourceHierarchy;
+    private final ImmutableMap<Class<?>, ClassHierarchyInspector> targetHierarchies;
+    
+    private FrozenTypeConverterDictionary(TypeConverterDictionary dictionary) {
+        sourceClasses = ImmutableSet.copyOf(dictionary.sourceClasses());
+        
+        ImmutableMap.Builder<Class<?>, ImmutableSet<Class<?>>> targetClasses = ImmutableMap.builder();
+        ImmutableMap.Builder<Class<?>, ClassHierarchyInspector> targetHierarchies = ImmutableMap.builder();
+        int entries = 0;
+        for (Class<?> sourceClass : sourceClasses) {
+            ImmutableSet<Class<?>> targets = ImmutableSet.copyOf(dictionary.targetClassesFor(sourceClass));
+            targetClasses.put(sourceClass, targets);
+            targetHierarchies.put(sourceClass, new ClassHierarchyInspector(targets));
+            entries += targets.size();
+        }
+        this.targetClasses = targetClasses.build();
+        this.targetHierarchies = targetHierarchies.build();
+        sourceHierarchy = new ClassHierarchyInspector(sourceClasses);
+        
+        int capacity = tableSizeFor(entries);
+        sourceKeys = new Class<?>[capacity];
+        targetKeys = new Class<?>[capacity];
+        converters = new Function<?, ?>[capacity];
+        mask = capacity - 1;
+        
+        for (Class<?> sourceClass : sourceClasses) {
+            for (Class<?> targetClass : this.targetClasses.get(sourceClass)) {
+                insert(sourceClass, targetClass, dictionary.converterFor(sourceClass, targetClass));
+            }
+        }
+    }
+    
+    private static int tableSizeFor(int entries) {
+        int capacity = 2;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    private static int hash(Class<?> sourceClass, Class<?> targetClass) {
+        int h = sourceClass.hashCode() * 31 + targetClass.hashCode();
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    private void insert(Class<?> sourceClass, Class<?> targetClass, Function<?, ?> converter) {
+        int index = hash(sourceClass, targetClass) & mask;
+        while (sourceKeys[index] != null) {
+            index = (index + 1) & mask;
+        }
+        sourceKeys[index] = sourceClass;
+        targetKeys[index] = targetClass;
+        converters[index] = converter;
+    }
+    
+    @Override public Set<Class<?>> sourceClasses() {
+        return sourceClasses;
+    }
+    
+    @Override public Set<Class<?>> targetClassesFor(Class<?> sourceClass) {
+        ImmutableSet<Class<?>> targets = targetClasses.get(sourceClass);
+        if (targets == null) {
+            return ImmutableSet.of();
+        }
+        return targets;
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override public <S, T> Function<S, T> converterFor(Class<S> sourceClass, Class<T> targetClass) {
+        int index = hash(sourceClass, targetClass) & mask;
+        Class<?> key;
+        while ((key = sourceKeys[index]) != null) {
+            if (key == sourceClass && targetKeys[index] == targetClass) {
+                return (Function) converters[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+    
+    @Override public ClassHierarchyInspector sourceHierarchy() {
+        return sourceHierarchy;
+    }
+    
+    @Override public ClassHierarchyInspector targetHierarchyFor(Class<?> sourceClass) {
+        ClassHierarchyInspector hierarchy = targetHierarchies.get(sourceClass);
+        if (hierarchy == null) {
+            return NO_TARGETS;
+        }
+        return hierarchy;
+    }
+    
+}
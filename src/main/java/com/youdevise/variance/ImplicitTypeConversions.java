@@ -1,6 +1,7 @@
 package com.youdevise.variance;
 
-import java.util.Stack;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.base.Supplier;
 
@@ -10,20 +11,15 @@ public final class ImplicitTypeConversions {
         @Override public TypeConversionContext get() { return current(); }
     });
     
-    private static final ThreadLocal<Stack<TypeConversionContext>> threadLocal =
-            new ThreadLocal<Stack<TypeConversionContext>>() {
-                @Override protected Stack<TypeConversionContext> initialValue() {
-                    Stack<TypeConversionContext> contextStack = new Stack<TypeConversionContext>();
-                    return contextStack;
+    private static final ThreadLocal<ContextStack> threadLocal =
+            new ThreadLocal<ContextStack>() {
+                @Override protected ContextStack initialValue() {
+                    return new ContextStack();
                 }
     };
     
     public static TypeConversionContext current() {
-        Stack<TypeConversionContext> stack = threadLocal.get();
-        if (stack.isEmpty()) {
-            return null;
-        }
-        return stack.peek();
+        return threadLocal.get().top();
     }
 
     public static void enterNew(TypeConversionContext context) {
@@ -31,17 +27,45 @@ public final class ImplicitTypeConversions {
     }
     
     public static void enterExtended(TypeConversionContext context) {
-        TypeConversionContext old = current();
+        ContextStack stack = threadLocal.get();
+        stack.push(extend(stack.top(), context));
+    }
+    
+    public static ConversionScope enterNewScope(TypeConversionContext context) {
+        return threadLocal.get().enter(context);
+    }
+    
+    public static ConversionScope enterExtendedScope(TypeConversionContext context) {
+        ContextStack stack = threadLocal.get();
+        return stack.enter(extend(stack.top(), context));
+    }
+    
+    private static TypeConversionContext extend(TypeConversionContext old, TypeConversionContext context) {
         if (old == null) {
-            enterNew(context);
-        } else {
-            enterNew(old.extendedWith(context));
+            return context;
         }
+        return ChainedTypeConversionContext.of(context, old).compiled();
+    }
+    
+    public static ConversionSnapshot capture() {
+        return ConversionSnapshot.of(current());
+    }
+    
+    public static Executor propagatingTo(final Executor executor) {
+        return new Executor() {
+            @Override public void execute(Runnable command) {
+                executor.execute(capture().wrap(command));
+            }
+        };
+    }
+    
+    public static ExecutorService propagatingTo(ExecutorService executorService) {
+        return new ContextPropagatingExecutorService(executorService);
     }
     
     public static void exit() {
-        Stack<TypeConversionContext> stack = threadLocal.get();
-        if (stack.size()==0) {
+        ContextStack stack = threadLocal.get();
+        if (stack.depth()==0) {
             throw new IllegalStateException("Exit called without corresponding Enter");
         }
         stack.pop();
@@ -0,0 +1,78 @@
+package com.youdevise.variance;
+
+final class IntVariant extends Variant {
+
+    private static final long serialVersionUID = -3547830281396516462L;
+    
+    private final int value;
+    
+    IntVariant(int value, TypeConversionContext boundContext) {
+        super(boundContext);
+        this.value = value;
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new IntVariant(value, boundContext);
+    }
+    
+    @Override
+    public Class<?> valueClass() {
+        return Integer.class;
+    }
+    
+    @Override
+    public int intValue() {
+        if (convertsByDefault(Integer.class, Integer.class, TypeConversions.toInt)) {
+            return value;
+        }
+        return super.intValue();
+    }
+    
+    @Override
+    public long longValue() {
+        if (convertsByDefault(Integer.class, Long.class, TypeConversions.toLong)) {
+            return value;
+        }
+        return super.longValue();
+    }
+    
+    @Override
+    public float floatValue() {
+        if (convertsByDefault(Integer.class, Float.class, TypeConversions.toFloat)) {
+            return value;
+        }
+        return super.floatValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        if (convertsByDefault(Integer.class, Double.class, TypeConversions.toDouble)) {
+            return value;
+        }
+        return super.doubleValue();
+    }
+    
+    @Override
+    public int hashCode() {
+        return value;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IntVariant) {
+            return ((IntVariant) o).value == value;
+        }
+        return super.equals(o);
+    }
+    
+    @Override
+    boolean hasValue(Object value) {
+        return value instanceof Integer && ((Integer) value).intValue() == this.value;
+    }
+    
+    @Override
+    public Object get() {
+        return value;
+    }
+}
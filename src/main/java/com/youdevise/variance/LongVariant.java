@@ -0,0 +1,78 @@
+package com.youdevise.variance;
+
+final class LongVariant extends Variant {
+
+    private static final long serialVersionUID = 2896174052946531307L;
+    
+    private final long value;
+    
+    LongVariant(long value, TypeConversionContext boundContext) {
+        super(boundContext);
+        this.value = value;
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new LongVariant(value, boundContext);
+    }
+    
+    @Override
+    public Class<?> valueClass() {
+        return Long.class;
+    }
+    
+    @Override
+    public int intValue() {
+        if (convertsByDefault(Long.class, Integer.class, TypeConversions.toInt)) {
+            return (int) value;
+        }
+        return super.intValue();
+    }
+    
+    @Override
+    public long longValue() {
+        if (convertsByDefault(Long.class, Long.class, TypeConversions.toLong)) {
+            return value;
+        }
+        return super.longValue();
+    }
+    
+    @Override
+    public float floatValue() {
+        if (convertsByDefault(Long.class, Float.class, TypeConversions.toFloat)) {
+            return value;
+        }
+        return super.floatValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        if (convertsByDefault(Long.class, Double.class, TypeConversions.toDouble)) {
+            return value;
+        }
+        return super.doubleValue();
+    }
+    
+    @Override
+    public int hashCode() {
+        return (int) (value ^ (value >>> 32));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LongVariant) {
+            return ((LongVariant) o).value == value;
+        }
+        return super.equals(o);
+    }
+    
+    @Override
+    boolean hasValue(Object value) {
+        return value instanceof Long && ((Long) value).longValue() == this.value;
+    }
+    
+    @Override
+    public Object get() {
+        return value;
+    }
+}
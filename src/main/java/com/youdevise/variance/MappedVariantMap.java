@@ -0,0 +1,361 @@
+package com.youdevise.variance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public final class MappedVariantMap extends AbstractMap<Object, Object> {
+
+    private static final int MAGIC = 0x564D4150;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    
+    private static final class ScratchStream extends ByteArrayOutputStream {
+        byte[] bytes() {
+            return buf;
+        }
+    }
+    
+    private static final class Scratch {
+        private final ScratchStream encoded = new ScratchStream();
+        private final VariantWriter writer;
+        private final VariantReader reader;
+        
+        private Scratch() throws IOException {
+            this.writer = VariantWriter.headerless(encoded);
+            this.reader = VariantReader.headerless(EMPTY);
+        }
+        
+        boolean encode(Object key) throws IOException {
+            encoded.reset();
+            try {
+                writer.write(Variant.of(key));
+                writer.flush();
+                return true;
+            } catch (IllegalArgumentException e) {
+                writer.flush();
+                encoded.reset();
+                return false;
+            }
+        }
+    }
+    
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override protected Scratch initialValue() {
+            try {
+                return new Scratch();
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+    };
+
+    public static void write(Map<?, ?> map, File file) throws IOException {
+        int size = map.size();
+        int slotCount = slotCountFor(size);
+        long[] offsets = new long[slotCount];
+        int[] hashes = new int[slotCount];
+        int mask = slotCount - 1;
+
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            long position = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                byte[] key = VariantCodec.encodeHeaderless(Variant.of(entry.getKey()));
+                byte[] value = VariantCodec.encodeHeaderless(Variant.of(entry.getValue()));
+                int length = ENTRY_HEADER_SIZE + key.length + value.length;
+                if (length > SEGMENT_SIZE) {
+                    throw new IllegalArgumentException("Entry is too large to map: " + length + " bytes");
+                }
+                if ((position & (SEGMENT_SIZE - 1)) + length > SEGMENT_SIZE) {
+                    position = (position | (SEGMENT_SIZE - 1)) + 1;
+                }
+
+                ByteBuffer bytes = ByteBuffer.allocate(length);
+                bytes.putInt(key.length).putInt(value.length).put(key).put(value).flip();
+                writeFully(channel, bytes, position);
+
+                int hash = hashOf(key, key.length);
+                int slot = hash & mask;
+                while (offsets[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                offsets[slot] = position;
+                hashes[slot] = hash;
+                position += length;
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(SLOT_SIZE * 4096);
+            long indexPosition = HEADER_SIZE;
+            for (int slot = 0; slot < slotCount; slot++) {
+                index.putLong(offsets[slot]).putInt(hashes[slot]).putInt(0);
+                if (!index.hasRemaining() || slot == slotCount - 1) {
+                    index.flip();
+                    indexPosition += writeFully(channel, index, indexPosition);
+                    index.clear();
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(size).putInt(slotCount).putLong(position).flip();
+            writeFully(channel, header, 0);
+            channel.force(false);
+        } finally {
+            out.close();
+        }
+    }
+
+    public static MappedVariantMap open(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = in.getChannel();
+            long length = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+            }
+            return new MappedVariantMap(segments, length);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static int slotCountFor(int size) {
+        int slotCount = 8;
+        while (size * 4L > slotCount * 3L) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        int written = 0;
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes, position + written);
+        }
+        return written;
+    }
+
+    private static int hashOf(byte[] bytes, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private final MappedByteBuffer[] segments;
+    private final int size;
+    private final int slotCount;
+
+    private MappedVariantMap(MappedByteBuffer[] segments, long length) throws IOException {
+        if (length < HEADER_SIZE || segments[0].getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped variant map");
+        }
+        if (segments[0].getInt(4) != FORMAT_VERSION) {
+            throw new IOException(String.format("Unsupported format version [%s]", segments[0].getInt(4)));
+        }
+        this.segments = segments;
+        this.size = segments[0].getInt(8);
+        this.slotCount = segments[0].getInt(12);
+        if (Integer.bitCount(slotCount) != 1 || segments[0].getLong(16) != length) {
+            throw new IOException("Mapped variant map is truncated or corrupt");
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && offsetOf(key) != 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        for (Map.Entry<Object, Object> entry : entrySet()) {
+            if (VariantMap.equivalent(entry.getValue(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Variant get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        long offset = offsetOf(key);
+        return offset == 0 ? null : valueAt(offset);
+    }
+
+    @Override
+    public Variant put(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Variant remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, Object>>() {
+            @Override public Iterator<Map.Entry<Object, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private int next = advanceFrom(0);
+
+        private int advanceFrom(int slot) {
+            while (slot < slotCount && slotOffset(slot) == 0) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override public boolean hasNext() {
+            return next < slotCount;
+        }
+
+        @Override public Map.Entry<Object, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long offset = slotOffset(next);
+            Map.Entry<Object, Object> entry = new AbstractMap.SimpleImmutableEntry<Object, Object>(keyAt(offset),
+                                                                                                  valueAt(offset));
+            next = advanceFrom(next + 1);
+            return entry;
+        }
+
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private long offsetOf(Object key) {
+        Scratch scratch = MappedVariantMap.scratch.get();
+        try {
+            if (!scratch.encode(key)) {
+                return 0;
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        byte[] encodedKey = scratch.encoded.bytes();
+        int length = scratch.encoded.size();
+        int hash = hashOf(encodedKey, length);
+        int mask = slotCount - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long offset = slotOffset(slot);
+            if (offset == 0) {
+                return 0;
+            }
+            if (slotHash(slot) == hash && keyMatches(offset, encodedKey, length) && VariantMap.equivalent(keyAt(offset), key)) {
+                return offset;
+            }
+        }
+    }
+
+    private boolean keyMatches(long offset, byte[] encodedKey, int length) {
+        ByteBuffer segment = segmentAt(offset);
+        int position = positionIn(offset);
+        if (segment.getInt(position) != length) {
+            return false;
+        }
+        position += ENTRY_HEADER_SIZE;
+        for (int i = 0; i < length; i++) {
+            if (segment.get(position + i) != encodedKey[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Variant keyAt(long offset) {
+        ByteBuffer segment = segmentAt(offset);
+        int position = positionIn(offset);
+        return decode(segment, position + ENTRY_HEADER_SIZE, segment.getInt(position));
+    }
+
+    private Variant valueAt(long offset) {
+        ByteBuffer segment = segmentAt(offset);
+        int position = positionIn(offset);
+        int keyLength = segment.getInt(position);
+        return decode(segment, position + ENTRY_HEADER_SIZE + keyLength, segment.getInt(position + 4));
+    }
+
+    private static Variant decode(ByteBuffer segment, int position, int length) {
+        ByteBuffer bytes = segment.duplicate();
+        bytes.limit(position + length).position(position);
+        VariantReader reader = scratch.get().reader;
+        try {
+            return reader.reset(bytes).read();
+        } catch (IOException e) {
+            throw new IllegalStateException("Mapped variant map is corrupt", e);
+        } finally {
+            reader.reset(EMPTY);
+        }
+    }
+
+    private long slotOffset(int slot) {
+        long position = HEADER_SIZE + (long) slot * SLOT_SIZE;
+        return segmentAt(position).getLong(positionIn(position));
+    }
+
+    private int slotHash(int slot) {
+        long position = HEADER_SIZE + (long) slot * SLOT_SIZE + 8;
+        return segmentAt(position).getInt(positionIn(position));
+    }
+
+    private ByteBuffer segmentAt(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)];
+    }
+
+    private static int positionIn(long position) {
+        return (int) (position & (SEGMENT_SIZE - 1));
+    }
+}
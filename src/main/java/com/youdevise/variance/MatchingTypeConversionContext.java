@@ -12,6 +12,21 @@ public class MatchingTypeConversionContext implements TypeConversionContext {
             return this;
         }
         
+        public <S, T> Builder register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> converter, int cost) {
+            registryBuilder.register(sourceClass, targetClass, converter, cost);
+            return this;
+        }
+        
+        public Builder composeConverters() {
+            registryBuilder.composeConverters();
+            return this;
+        }
+        
+        public Builder composeConverters(int maximumHops) {
+            registryBuilder.composeConverters(maximumHops);
+            return this;
+        }
+        
         public TypeConversionContext build() {
             return new MatchingTypeConversionContext(registryBuilder.build());
         }
@@ -42,10 +57,19 @@ public class MatchingTypeConversionContext implements TypeConversionContext {
         Function<? super S, ? extends T> converter = registry.getConverter(sourceClass, targetClass);
         return converter.apply((S) o);
     }
+    
+    @Override
+    public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+        Function<?, ? extends C> converter = registry.findConverter(sourceClass, targetClass);
+        if (converter == null) {
+            return Conversion.impossible();
+        }
+        return Conversion.applying(converter);
+    }
 
     @Override
     public TypeConversionContext extendedWith(TypeConversionContext ctx) {
-        return new ChainedTypeConversionContext(ctx, this);
+        return ChainedTypeConversionContext.of(ctx, this);
     }
 
 }
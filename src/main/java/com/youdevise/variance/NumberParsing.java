@@ -0,0 +1,317 @@
+package com.youdevise.variance;
+
+public final class NumberParsing {
+    private NumberParsing() { }
+    
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    
+    private static final long EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final long EXACT_FLOAT_MANTISSA = 1L << 24;
+    
+    private static final int MANTISSA_BITS = 54;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+    private static final int EXPONENT_BIAS = 32;
+    private static final long NEGATIVE_BIT = 1L << 62;
+    private static final long NOT_SIMPLE = -1L;
+    
+    public static int parseInt(CharSequence chars) {
+        return parseInt(chars, 0, chars.length());
+    }
+    
+    public static int parseInt(CharSequence chars, int start, int end) {
+        return (int) parseIntegral(chars, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, true, 0);
+    }
+    
+    public static int tryParseInt(CharSequence chars, int failureValue) {
+        return tryParseInt(chars, 0, chars.length(), failureValue);
+    }
+    
+    public static int tryParseInt(CharSequence chars, int start, int end, int failureValue) {
+        return (int) parseIntegral(chars, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, false, failureValue);
+    }
+    
+    public static long parseLong(CharSequence chars) {
+        return parseLong(chars, 0, chars.length());
+    }
+    
+    public static long parseLong(CharSequence chars, int start, int end) {
+        return parseIntegral(chars, start, end, Long.MIN_VALUE, Long.MAX_VALUE, true, 0);
+    }
+    
+    public static long tryParseLong(CharSequence chars, long failureValue) {
+        return tryParseLong(chars, 0, chars.length(), failureValue);
+    }
+    
+    public static long tryParseLong(CharSequence chars, int start, int end, long failureValue) {
+        return parseIntegral(chars, start, end, Long.MIN_VALUE, Long.MAX_VALUE, false, failureValue);
+    }
+    
+    public static double parseDouble(CharSequence chars) {
+        return parseDouble(chars, 0, chars.length());
+    }
+    
+    public static double parseDouble(CharSequence chars, int start, int end) {
+        long decimal = simpleDecimal(chars, start, end, EXACT_DOUBLE_MANTISSA, POWERS_OF_TEN.length - 1);
+        if (decimal != NOT_SIMPLE) {
+            return toDouble(decimal);
+        }
+        return Double.parseDouble(chars.subSequence(start, end).toString());
+    }
+    
+    public static double tryParseDouble(CharSequence chars, double failureValue) {
+        return tryParseDouble(chars, 0, chars.length(), failureValue);
+    }
+    
+    public static double tryParseDouble(CharSequence chars, int start, int end, double failureValue) {
+        long decimal = simpleDecimal(chars, start, end, EXACT_DOUBLE_MANTISSA, POWERS_OF_TEN.length - 1);
+        if (decimal != NOT_SIMPLE) {
+            return toDouble(decimal);
+        }
+        if (!isFloatingPointLiteral(chars, start, end)) {
+            return failureValue;
+        }
+        return Double.parseDouble(chars.subSequence(start, end).toString());
+    }
+    
+    public static float parseFloat(CharSequence chars) {
+        return parseFloat(chars, 0, chars.length());
+    }
+    
+    public static float parseFloat(CharSequence chars, int start, int end) {
+        long decimal = simpleDecimal(chars, start, end, EXACT_FLOAT_MANTISSA, FLOAT_POWERS_OF_TEN.length - 1);
+        if (decimal != NOT_SIMPLE) {
+            return toFloat(decimal);
+        }
+        return Float.parseFloat(chars.subSequence(start, end).toString());
+    }
+    
+    public static float tryParseFloat(CharSequence chars, float failureValue) {
+        return tryParseFloat(chars, 0, chars.length(), failureValue);
+    }
+    
+    public static float tryParseFloat(CharSequence chars, int start, int end, float failureValue) {
+        long decimal = simpleDecimal(chars, start, end, EXACT_FLOAT_MANTISSA, FLOAT_POWERS_OF_TEN.length - 1);
+        if (decimal != NOT_SIMPLE) {
+            return toFloat(decimal);
+        }
+        if (!isFloatingPointLiteral(chars, start, end)) {
+            return failureValue;
+        }
+        return Float.parseFloat(chars.subSequence(start, end).toString());
+    }
+    
+    private static long parseIntegral(CharSequence chars, int start, int end, long minimum, long maximum, boolean throwing, long failureValue) {
+        if (start >= end) {
+            return fail(chars, start, end, throwing, failureValue);
+        }
+        int i = start;
+        boolean negative = false;
+        char first = chars.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return fail(chars, start, end, throwing, failureValue);
+            }
+        }
+        
+        long limit = negative ? minimum : -maximum;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = digitAt(chars, i);
+            if (digit < 0 || result < multiplicationLimit) {
+                return fail(chars, start, end, throwing, failureValue);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return fail(chars, start, end, throwing, failureValue);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    private static long fail(CharSequence chars, int start, int end, boolean throwing, long failureValue) {
+        if (throwing) {
+            throw new NumberFormatException("For input string: \"" + chars.subSequence(start, end) + "\"");
+        }
+        return failureValue;
+    }
+    
+    private static int digitAt(CharSequence chars, int index) {
+        char c = chars.charAt(index);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        return Character.digit(c, 10);
+    }
+    
+    private static double toDouble(long decimal) {
+        long mantissa = decimal & MANTISSA_MASK;
+        int exponent = (int) ((decimal & ~NEGATIVE_BIT) >>> MANTISSA_BITS) - EXPONENT_BIAS;
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return (decimal & NEGATIVE_BIT) != 0 ? -value : value;
+    }
+    
+    private static float toFloat(long decimal) {
+        long mantissa = decimal & MANTISSA_MASK;
+        int exponent = (int) ((decimal & ~NEGATIVE_BIT) >>> MANTISSA_BITS) - EXPONENT_BIAS;
+        float value = exponent < 0 ? mantissa / FLOAT_POWERS_OF_TEN[-exponent] : mantissa * FLOAT_POWERS_OF_TEN[exponent];
+        return (decimal & NEGATIVE_BIT) != 0 ? -value : value;
+    }
+    
+    private static long simpleDecimal(CharSequence chars, int start, int end, long maximumMantissa, int maximumExponent) {
+        int i = start;
+        if (i >= end) {
+            return NOT_SIMPLE;
+        }
+        boolean negative = false;
+        char first = chars.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            char c = chars.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa > maximumMantissa) {
+                    return NOT_SIMPLE;
+                }
+                if (seenPoint) {
+                    exponent--;
+                }
+                digits++;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return NOT_SIMPLE;
+        }
+        
+        if (i < end && (chars.charAt(i) == 'e' || chars.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+                negativeExponent = chars.charAt(i) == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for (; i < end; i++) {
+                char c = chars.charAt(i);
+                if (c < '0' || c > '9' || exponentDigits > 3) {
+                    return NOT_SIMPLE;
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return NOT_SIMPLE;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        
+        if (i != end || exponent < -maximumExponent || exponent > maximumExponent) {
+            return NOT_SIMPLE;
+        }
+        long decimal = mantissa | ((long) (exponent + EXPONENT_BIAS) << MANTISSA_BITS);
+        return negative ? decimal | NEGATIVE_BIT : decimal;
+    }
+    
+    private static boolean isFloatingPointLiteral(CharSequence chars, int start, int end) {
+        while (start < end && chars.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && chars.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int i = start;
+        if (i < end && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+            i++;
+        }
+        if (isLiteral(chars, i, end, "NaN") || isLiteral(chars, i, end, "Infinity")) {
+            return true;
+        }
+        
+        int radix = 10;
+        if (end - i > 1 && chars.charAt(i) == '0' && (chars.charAt(i + 1) == 'x' || chars.charAt(i + 1) == 'X')) {
+            radix = 16;
+            i += 2;
+        }
+        int integerEnd = skipDigits(chars, i, end, radix);
+        int digits = integerEnd - i;
+        i = integerEnd;
+        if (i < end && chars.charAt(i) == '.') {
+            int fractionEnd = skipDigits(chars, i + 1, end, radix);
+            digits += fractionEnd - i - 1;
+            i = fractionEnd;
+        }
+        if (digits == 0) {
+            return false;
+        }
+        
+        char exponentMarker = radix == 16 ? 'p' : 'e';
+        if (i < end && Character.toLowerCase(chars.charAt(i)) == exponentMarker) {
+            i++;
+            if (i < end && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentEnd = skipDigits(chars, i, end, 10);
+            if (exponentEnd == i) {
+                return false;
+            }
+            i = exponentEnd;
+        } else if (radix == 16) {
+            return false;
+        }
+        
+        if (i == end - 1) {
+            char suffix = chars.charAt(i);
+            return suffix == 'f' || suffix == 'F' || suffix == 'd' || suffix == 'D';
+        }
+        return i == end;
+    }
+    
+    private static int skipDigits(CharSequence chars, int start, int end, int radix) {
+        int i = start;
+        while (i < end && isAsciiDigit(chars.charAt(i), radix)) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static boolean isAsciiDigit(char c, int radix) {
+        if (c >= '0' && c <= '9') {
+            return true;
+        }
+        return radix == 16 && ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'));
+    }
+    
+    private static boolean isLiteral(CharSequence chars, int start, int end, String literal) {
+        if (end - start != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (chars.charAt(start + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
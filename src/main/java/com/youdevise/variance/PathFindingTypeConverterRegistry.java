@@ -0,0 +1,209 @@
+package com.youdevise.variance;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+
+public class PathFindingTypeConverterRegistry implements TypeConverterRegistry {
+
+    public static final int UNLIMITED_HOPS = -1;
+    public static final int DEFAULT_COST = 1;
+    
+    private static final class Step implements Comparable<Step> {
+        private final Class<?> type;
+        private final int cost;
+        private final int hops;
+        private final long sequence;
+        private final Step previous;
+        private final Function<?, ?> converter;
+        
+        private Step(Class<?> type, int cost, int hops, long sequence, Step previous, Function<?, ?> converter) {
+            this.type = type;
+            this.cost = cost;
+            this.hops = hops;
+            this.sequence = sequence;
+            this.previous = previous;
+            this.converter = converter;
+        }
+        
+        @Override public int compareTo(Step other) {
+            if (cost != other.cost) { return cost < other.cost ? -1 : 1; }
+            if (hops != other.hops) { return hops < other.hops ? -1 : 1; }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+    
+    private static final class ComposedConverter implements Function<Object, Object> {
+        private final List<Function<Object, Object>> steps;
+        
+        private ComposedConverter(List<Function<Object, Object>> steps) {
+            this.steps = ImmutableList.copyOf(steps);
+        }
+        
+        @Override public Object apply(Object value) {
+            Object result = value;
+            for (Function<Object, Object> step : steps) {
+                result = step.apply(result);
+            }
+            return result;
+        }
+    }
+    
+    private static final Ordering<Class<?>> BY_NAME = Ordering.natural().onResultOf(new Function<Class<?>, String>() {
+        @Override public String apply(Class<?> klass) { return klass.getName(); }
+    });
+    
+    private final TypeConverterDictionary dictionary;
+    private final TypeConverterRegistry directRegistry;
+    private final ImmutableMap<Class<?>, ImmutableList<Class<?>>> targetsByName;
+    private final ImmutableMap<Class<?>, Map<Class<?>, Class<?>>> edgesFromSources;
+    private final ConversionTable<Integer> costs;
+    private final int maximumHops;
+    
+    public PathFindingTypeConverterRegistry(TypeConverterDictionary dictionary) {
+        this(dictionary, UNLIMITED_HOPS);
+    }
+    
+    public PathFindingTypeConverterRegistry(TypeConverterDictionary dictionary, int maximumHops) {
+        this(dictionary, new ConversionTable<Integer>(), maximumHops);
+    }
+    
+    PathFindingTypeConverterRegistry(TypeConverterDictionary dictionary, ConversionTable<Integer> costs, int maximumHops) {
+        Preconditions.checkArgument(maximumHops == UNLIMITED_HOPS || maximumHops > 0,
+                                    "Maximum hops must be positive or UNLIMITED_HOPS, but was %s", maximumHops);
+        this.dictionary = FrozenTypeConverterDictionary.copyOf(dictionary);
+        this.directRegistry = new UncachedTypeConverterRegistry(this.dictionary);
+        this.costs = costs;
+        this.maximumHops = maximumHops;
+        
+        ImmutableMap.Builder<Class<?>, ImmutableList<Class<?>>> targetsByName = ImmutableMap.builder();
+        for (Class<?> registeredSource : this.dictionary.sourceClasses()) {
+            targetsByName.put(registeredSource, BY_NAME.immutableSortedCopy(this.dictionary.targetClassesFor(registeredSource)));
+        }
+        this.targetsByName = targetsByName.build();
+        
+        ImmutableMap.Builder<Class<?>, Map<Class<?>, Class<?>>> edgesFromSources = ImmutableMap.builder();
+        for (Class<?> registeredSource : this.dictionary.sourceClasses()) {
+            edgesFromSources.put(registeredSource, nearestSourcesByTarget(registeredSource));
+        }
+        this.edgesFromSources = edgesFromSources.build();
+    }
+    
+    @Override
+    public boolean hasConverter(Class<?> sourceClass, Class<?> targetClass) {
+        return findConverter(sourceClass, targetClass) != null;
+    }
+    
+    @Override
+    public <S, T> Function<? super S, ? extends T> getConverter(Class<S> sourceClass, Class<T> targetClass) {
+        Function<? super S, ? extends T> converter = findConverter(sourceClass, targetClass);
+        Preconditions.checkNotNull(converter, "No converter found between [%s] and [%s]", sourceClass, targetClass);
+        return converter;
+    }
+    
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceClass, Class<T> targetClass) {
+        Function<? super S, ? extends T> direct = directRegistry.findConverter(sourceClass, targetClass);
+        if (direct != null) {
+            return direct;
+        }
+        
+        Step path = shortestPath(sourceClass, targetClass);
+        if (path == null) {
+            return null;
+        }
+        return (Function) compose(path);
+    }
+    
+    private Step shortestPath(Class<?> sourceClass, Class<?> targetClass) {
+        PriorityQueue<Step> frontier = new PriorityQueue<Step>();
+        Map<Class<?>, Step> bestSteps = Maps.newHashMap();
+        Set<Class<?>> settled = Sets.newHashSet();
+        long sequence = 0;
+        
+        Step start = new Step(sourceClass, 0, 0, sequence++, null, null);
+        frontier.add(start);
+        bestSteps.put(sourceClass, start);
+        
+        while (!frontier.isEmpty()) {
+            Step step = frontier.poll();
+            if (!settled.add(step.type)) {
+                continue;
+            }
+            if (step.previous != null && targetClass.isAssignableFrom(step.type)) {
+                return step;
+            }
+            if (maximumHops != UNLIMITED_HOPS && step.hops >= maximumHops) {
+                continue;
+            }
+            
+            for (Map.Entry<Class<?>, Class<?>> edge : edgesFrom(step.type).entrySet()) {
+                Class<?> registeredTarget = edge.getKey();
+                Class<?> registeredSource = edge.getValue();
+                if (settled.contains(registeredTarget)) {
+                    continue;
+                }
+                Step candidate = new Step(registeredTarget,
+                                          step.cost + costOf(registeredSource, registeredTarget),
+                                          step.hops + 1,
+                                          sequence++,
+                                          step,
+                                          dictionary.converterFor(registeredSource, registeredTarget));
+                Step best = bestSteps.get(registeredTarget);
+                if (best != null && best.compareTo(candidate) <= 0) {
+                    continue;
+                }
+                bestSteps.put(registeredTarget, candidate);
+                frontier.add(candidate);
+            }
+        }
+        return null;
+    }
+    
+    private Map<Class<?>, Class<?>> edgesFrom(Class<?> type) {
+        Map<Class<?>, Class<?>> edges = edgesFromSources.get(type);
+        return edges == null ? nearestSourcesByTarget(type) : edges;
+    }
+    
+    private Map<Class<?>, Class<?>> nearestSourcesByTarget(Class<?> type) {
+        Map<Class<?>, Class<?>> sourcesByTarget = Maps.newLinkedHashMap();
+        for (Class<?> registeredSource : dictionary.sourceHierarchy().classesAssignableFrom(type)) {
+            for (Class<?> registeredTarget : targetsByName.get(registeredSource)) {
+                if (!sourcesByTarget.containsKey(registeredTarget)) {
+                    sourcesByTarget.put(registeredTarget, registeredSource);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(sourcesByTarget);
+    }
+    
+    private int costOf(Class<?> sourceClass, Class<?> targetClass) {
+        Integer cost = costs.get(sourceClass, targetClass);
+        return cost == null ? DEFAULT_COST : cost;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> compose(Step path) {
+        List<Function<Object, Object>> steps = Lists.newArrayList();
+        for (Step step = path; step.previous != null; step = step.previous) {
+            steps.add(0, (Function<Object, Object>) step.converter);
+        }
+        if (steps.size() == 1) {
+            return steps.get(0);
+        }
+        return new ComposedConverter(steps);
+    }
+
+}
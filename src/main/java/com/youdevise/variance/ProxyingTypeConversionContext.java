@@ -22,7 +22,15 @@ public final class ProxyingTypeConversionContext implements TypeConversionContex
     
     @Override
     public <C> boolean canConvert(Object o, Class<C> targetClass) {
-        if (supplier.get() == null) { return false; }
-        return supplier.get().canConvert(o, targetClass);
+        TypeConversionContext current = supplier.get();
+        if (current == null) { return false; }
+        return current.canConvert(o, targetClass);
+    }
+    
+    @Override
+    public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+        TypeConversionContext current = supplier.get();
+        if (current == null) { return Conversion.impossible(); }
+        return current.conversionFor(sourceClass, targetClass);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.youdevise.variance;
+
+import java.util.Collection;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Iterables;
+
+final class ReferenceVariant extends Variant {
+
+    private static final long serialVersionUID = -2467308195542718318L;
+    
+    private static final Function<Variant, Variant> BIND_TO_DEFAULT_CONTEXT = binderFor(defaultContext());
+    
+    private final Object value;
+    
+    @SuppressWarnings("unchecked")
+    ReferenceVariant(Object value, TypeConversionContext boundContext) {
+        super(boundContext);
+        if (value instanceof Iterable) {
+            this.value = bound((Iterable<Variant>) value, boundContext);
+        } else {
+            this.value = value;
+        }
+    }
+    
+    private static Iterable<Variant> bound(Iterable<Variant> values, TypeConversionContext typeConversionContext) {
+        Function<Variant, Variant> binder = typeConversionContext == defaultContext()
+                ? BIND_TO_DEFAULT_CONTEXT
+                : binderFor(typeConversionContext);
+        if (values instanceof Collection) {
+            return Collections2.transform((Collection<Variant>) values, binder);
+        }
+        return Iterables.transform(values, binder);
+    }
+    
+    private static Function<Variant, Variant> binderFor(final TypeConversionContext typeConversionContext) {
+        return new Function<Variant, Variant>() {
+            @Override public Variant apply(Variant arg0) {
+                if (arg0.context() == typeConversionContext) {
+                    return arg0;
+                }
+                return arg0.rebound(typeConversionContext);
+            }
+        };
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new ReferenceVariant(value, boundContext);
+    }
+    
+    @Override
+    public Object get() {
+        return value;
+    }
+}
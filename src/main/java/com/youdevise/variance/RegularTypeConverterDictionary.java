@@ -3,6 +3,8 @@ package com.youdevise.variance;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Maps;
@@ -12,9 +14,13 @@ import static com.google.common.collect.Maps.newHashMap;
 public class RegularTypeConverterDictionary implements TypeConverterDictionary {
     
     private final Map<Class<?>, Map<Class<?>, Function<?, ?>>> registry;
+    private final ConcurrentMap<Class<?>, ClassHierarchyInspector> targetHierarchies = new ConcurrentHashMap<Class<?>, ClassHierarchyInspector>();
+    private volatile ClassHierarchyInspector sourceHierarchy;
     
     public <S, T> void register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> converter) {
         convertersFor(sourceClass).put(targetClass, converter);
+        sourceHierarchy = null;
+        targetHierarchies.remove(sourceClass);
     }
     
     private Map<Class<?>, Function<?, ?>> convertersFor(Class<?> sourceClass) {
@@ -34,6 +40,10 @@ public class RegularTypeConverterDictionary implements TypeConverterDictionary {
         this.registry = registry;
     }
     
+    public FrozenTypeConverterDictionary freeze() {
+        return FrozenTypeConverterDictionary.copyOf(this);
+    }
+    
     @Override public Set<Class<?>> sourceClasses() {
         return registry.keySet();
     }
@@ -53,4 +63,22 @@ public class RegularTypeConverterDictionary implements TypeConverterDictionary {
         return (Function) registry.get(sourceClass).get(targetClass);
     }
     
-}
\ No newline at end of file
+    @Override public ClassHierarchyInspector sourceHierarchy() {
+        ClassHierarchyInspector hierarchy = sourceHierarchy;
+        if (hierarchy == null) {
+            hierarchy = new ClassHierarchyInspector(sourceClasses());
+            sourceHierarchy = hierarchy;
+        }
+        return hierarchy;
+    }
+    
+    @Override public ClassHierarchyInspector targetHierarchyFor(Class<?> sourceClass) {
+        ClassHierarchyInspector hierarchy = targetHierarchies.get(sourceClass);
+        if (hierarchy == null) {
+            hierarchy = new ClassHierarchyInspector(targetClassesFor(sourceClass));
+            targetHierarchies.put(sourceClass, hierarchy);
+        }
+        return hierarchy;
+    }
+    
+}
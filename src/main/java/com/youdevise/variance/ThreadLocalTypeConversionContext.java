@@ -1,7 +1,5 @@
 package com.youdevise.variance;
 
-import java.util.Stack;
-
 import com.google.common.base.Supplier;
 
 public final class ThreadLocalTypeConversionContext {
@@ -12,10 +10,10 @@ public final class ThreadLocalTypeConversionContext {
         }
     };
     
-    private static final ThreadLocal<Stack<TypeConversionContext>> threadLocal =
-            new ThreadLocal<Stack<TypeConversionContext>>() {
-                @Override protected Stack<TypeConversionContext> initialValue() {
-                    Stack<TypeConversionContext> contextStack = new Stack<TypeConversionContext>();
+    private static final ThreadLocal<ContextStack> threadLocal =
+            new ThreadLocal<ContextStack>() {
+                @Override protected ContextStack initialValue() {
+                    ContextStack contextStack = new ContextStack();
                     contextStack.push(standardTypeConversionContext());
                     return contextStack;
                 }
@@ -24,11 +22,11 @@ public final class ThreadLocalTypeConversionContext {
     private static final TypeConversionContext standardTypeConversionContext() {
         TypeConversionContext castingContext = new CastingTypeConversionContext();
         
-        return castingContext.extendWith(TypeConversions.standardContext);
+        return castingContext.extendedWith(TypeConversions.standardContext);
     }
     
     public static TypeConversionContext current() {
-        return threadLocal.get().peek();
+        return threadLocal.get().top();
     }
 
     public static void enterNew(TypeConversionContext context) {
@@ -37,12 +35,21 @@ public final class ThreadLocalTypeConversionContext {
     
     public static void enterExtended(TypeConversionContext context) {
         TypeConversionContext old = current();
-        enterNew(old.extendWith(context));
+        enterNew(old.extendedWith(context));
+    }
+    
+    public static ConversionScope enterNewScope(TypeConversionContext context) {
+        return threadLocal.get().enter(context);
+    }
+    
+    public static ConversionScope enterExtendedScope(TypeConversionContext context) {
+        ContextStack stack = threadLocal.get();
+        return stack.enter(stack.top().extendedWith(context));
     }
     
     public static void exit() {
-        Stack<TypeConversionContext> stack = threadLocal.get();
-        if (stack.size()==1) {
+        ContextStack stack = threadLocal.get();
+        if (stack.depth()==1) {
             throw new IllegalStateException("Exit called without corresponding Enter");
         }
         stack.pop();
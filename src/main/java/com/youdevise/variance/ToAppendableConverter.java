@@ -0,0 +1,7 @@
+package com.youdevise.variance;
+
+import java.io.IOException;
+
+public interface ToAppendableConverter<S> {
+    void appendTo(S source, Appendable appendable) throws IOException;
+}
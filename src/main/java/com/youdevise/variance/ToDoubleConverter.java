@@ -0,0 +1,5 @@
+package com.youdevise.variance;
+
+public interface ToDoubleConverter<S> {
+    double applyAsDouble(S source);
+}
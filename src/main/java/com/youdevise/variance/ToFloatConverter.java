@@ -0,0 +1,5 @@
+package com.youdevise.variance;
+
+public interface ToFloatConverter<S> {
+    float applyAsFloat(S source);
+}
@@ -0,0 +1,5 @@
+package com.youdevise.variance;
+
+public interface ToIntConverter<S> {
+    int applyAsInt(S source);
+}
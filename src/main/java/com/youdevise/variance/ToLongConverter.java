@@ -0,0 +1,5 @@
+package com.youdevise.variance;
+
+public interface ToLongConverter<S> {
+    long applyAsLong(S source);
+}
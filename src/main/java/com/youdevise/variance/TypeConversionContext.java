@@ -3,5 +3,6 @@ package com.youdevise.variance;
 public interface TypeConversionContext {
     <C> boolean canConvert(Object o, Class<C> targetClass);
     <C> C convert(Object o, Class<C> targetClass);
+    <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass);
     TypeConversionContext extendedWith(TypeConversionContext ctx);
 }
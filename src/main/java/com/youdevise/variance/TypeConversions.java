@@ -1,36 +1,71 @@
 package com.youdevise.variance;
 
+import java.io.IOException;
+import java.util.Collection;
+
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
-import com.google.common.base.Joiner;
-import com.google.common.base.Splitter;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
 public final class TypeConversions {
     private TypeConversions() { }
     
+    private static abstract class IntConversion<S> implements Function<S, Integer>, ToIntConverter<S> {
+        @Override public Integer apply(S source) { return applyAsInt(source); }
+    }
+    
+    private static abstract class LongConversion<S> implements Function<S, Long>, ToLongConverter<S> {
+        @Override public Long apply(S source) { return applyAsLong(source); }
+    }
+    
+    private static abstract class FloatConversion<S> implements Function<S, Float>, ToFloatConverter<S> {
+        @Override public Float apply(S source) { return applyAsFloat(source); }
+    }
+    
+    private static abstract class DoubleConversion<S> implements Function<S, Double>, ToDoubleConverter<S> {
+        @Override public Double apply(S source) { return applyAsDouble(source); }
+    }
+    
+    private static final int ESTIMATED_PART_LENGTH = 8;
+    private static final int MAXIMUM_ESTIMATED_LENGTH = 8192;
+    
+    private static abstract class StringConversion<S> implements Function<S, String>, ToAppendableConverter<S> {
+        @Override public String apply(S source) {
+            StringBuilder builder = new StringBuilder(estimatedLength(source));
+            try {
+                appendTo(source, builder);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            return builder.toString();
+        }
+        
+        protected abstract int estimatedLength(S source);
+    }
+    
     public static final Function<Number, Byte> toByte = new Function<Number, Byte>() {
         @Override public Byte apply(Number number) { return number.byteValue(); }
     };
     
-    public static final Function<Number, Integer> toInt = new Function<Number, Integer>() {
-        @Override public Integer apply(Number number) { return number.intValue(); }
+    public static final Function<Number, Integer> toInt = new IntConversion<Number>() {
+        @Override public int applyAsInt(Number number) { return number.intValue(); }
     };
     
     public static final Function<Number, Short> toShort = new Function<Number, Short>() {
         @Override public Short apply(Number number) { return number.shortValue(); }
     };
     
-    public static final Function<Number, Long> toLong = new Function<Number, Long>() {
-        @Override public Long apply(Number number) { return number.longValue(); }
+    public static final Function<Number, Long> toLong = new LongConversion<Number>() {
+        @Override public long applyAsLong(Number number) { return number.longValue(); }
     };
     
-    public static final Function<Number, Double> toDouble = new Function<Number, Double>() {
-        @Override public Double apply(Number number) { return number.doubleValue(); }
+    public static final Function<Number, Double> toDouble = new DoubleConversion<Number>() {
+        @Override public double applyAsDouble(Number number) { return number.doubleValue(); }
     };
     
-    public static final Function<Number, Float> toFloat = new Function<Number, Float>() {
-        @Override public Float apply(Number number) { return number.floatValue(); }
+    public static final Function<Number, Float> toFloat = new FloatConversion<Number>() {
+        @Override public float applyAsFloat(Number number) { return number.floatValue(); }
     };
     
     public static final Function<Object, String> toString = Functions.toStringFunction();
@@ -38,7 +73,25 @@ public final class TypeConversions {
     @SuppressWarnings("rawtypes")
     public static final Function<String, Iterable> stringToIterable = new Function<String, Iterable>() {
         @Override public Iterable apply(String string) {
-            return Splitter.on(",").split(string);
+            return DelimitedSequence.on(string, ',');
+        }
+    };
+    
+    public static final Function<String, int[]> stringToIntArray = new Function<String, int[]>() {
+        @Override public int[] apply(String string) {
+            return DelimitedSequence.on(string, ',').toIntArray();
+        }
+    };
+    
+    public static final Function<String, long[]> stringToLongArray = new Function<String, long[]>() {
+        @Override public long[] apply(String string) {
+            return DelimitedSequence.on(string, ',').toLongArray();
+        }
+    };
+    
+    public static final Function<String, double[]> stringToDoubleArray = new Function<String, double[]>() {
+        @Override public double[] apply(String string) {
+            return DelimitedSequence.on(string, ',').toDoubleArray();
         }
     };
     
@@ -50,9 +103,30 @@ public final class TypeConversions {
     };
     
     @SuppressWarnings("rawtypes")
-    public static final Function<Iterable, String> iterableToString = new Function<Iterable, String>() {
-        @Override public String apply(Iterable parts) {
-            return Joiner.on(",").join(parts);
+    public static final Function<Iterable, String> iterableToString = new StringConversion<Iterable>() {
+        @Override public void appendTo(Iterable parts, Appendable appendable) throws IOException {
+            boolean first = true;
+            for (Object part : parts) {
+                Preconditions.checkNotNull(part);
+                if (!first) {
+                    appendable.append(',');
+                }
+                first = false;
+                if (part instanceof Variant) {
+                    ((Variant) part).appendTo(appendable);
+                } else if (part instanceof CharSequence) {
+                    appendable.append((CharSequence) part);
+                } else {
+                    appendable.append(part.toString());
+                }
+            }
+        }
+        
+        @Override protected int estimatedLength(Iterable parts) {
+            if (!(parts instanceof Collection)) {
+                return 16;
+            }
+            return (int) Math.min((long) ((Collection) parts).size() * ESTIMATED_PART_LENGTH, MAXIMUM_ESTIMATED_LENGTH);
         }
     };
     
@@ -60,26 +134,51 @@ public final class TypeConversions {
         @Override public Byte apply(String string) { return Byte.valueOf(string); }
     };
     
-    public static final Function<String, Integer> stringToInt = new Function<String, Integer>() {
-        @Override public Integer apply(String string) { return Integer.valueOf(string); }
+    public static final Function<String, Integer> stringToInt = new IntConversion<String>() {
+        @Override public int applyAsInt(String string) { return NumberParsing.parseInt(string); }
     };
     
     public static final Function<String, Short> stringToShort = new Function<String, Short>() {
         @Override public Short apply(String string) { return Short.valueOf(string); }
     };
 
-    public static final Function<String, Long> stringToLong = new Function<String, Long>() {
-        @Override public Long apply(String string) { return Long.valueOf(string); }
+    public static final Function<String, Long> stringToLong = new LongConversion<String>() {
+        @Override public long applyAsLong(String string) { return NumberParsing.parseLong(string); }
+    };
+    
+    public static final Function<String, Float> stringToFloat = new FloatConversion<String>() {
+        @Override public float applyAsFloat(String string) { return NumberParsing.parseFloat(string); }
+    };
+    
+    public static final Function<String, Double> stringToDouble = new DoubleConversion<String>() {
+        @Override public double applyAsDouble(String string) { return NumberParsing.parseDouble(string); }
     };
     
-    public static final Function<String, Float> stringToFloat = new Function<String, Float>() {
-        @Override public Float apply(String string) { return Float.valueOf(string); }
+    public static final Function<CharSequence, Integer> charSequenceToInt = new IntConversion<CharSequence>() {
+        @Override public int applyAsInt(CharSequence chars) { return NumberParsing.parseInt(chars); }
     };
     
-    public static final Function<String, Double> stringToDouble = new Function<String, Double>() {
-        @Override public Double apply(String string) { return Double.valueOf(string); }
+    public static final Function<CharSequence, Long> charSequenceToLong = new LongConversion<CharSequence>() {
+        @Override public long applyAsLong(CharSequence chars) { return NumberParsing.parseLong(chars); }
     };
     
+    public static final Function<CharSequence, Float> charSequenceToFloat = new FloatConversion<CharSequence>() {
+        @Override public float applyAsFloat(CharSequence chars) { return NumberParsing.parseFloat(chars); }
+    };
+    
+    public static final Function<CharSequence, Double> charSequenceToDouble = new DoubleConversion<CharSequence>() {
+        @Override public double applyAsDouble(CharSequence chars) { return NumberParsing.parseDouble(chars); }
+    };
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static <C> Function<CharSequence, C> charSequenceEquivalentOf(Conversion<C> stringConversion) {
+        if (stringConversion.applies(stringToInt)) { return (Function) charSequenceToInt; }
+        if (stringConversion.applies(stringToLong)) { return (Function) charSequenceToLong; }
+        if (stringConversion.applies(stringToFloat)) { return (Function) charSequenceToFloat; }
+        if (stringConversion.applies(stringToDouble)) { return (Function) charSequenceToDouble; }
+        return null;
+    }
+    
     public static final TypeConversionContext standardContext = MatchingTypeConversionContext.builder()
         .register(Number.class, Byte.class, toByte)
         .register(Number.class, Integer.class, toInt)
@@ -94,7 +193,14 @@ public final class TypeConversions {
         .register(String.class, Long.class, stringToLong)
         .register(String.class, Float.class, stringToFloat)
         .register(String.class, Double.class, stringToDouble)
+        .register(CharSequence.class, Integer.class, charSequenceToInt)
+        .register(CharSequence.class, Long.class, charSequenceToLong)
+        .register(CharSequence.class, Float.class, charSequenceToFloat)
+        .register(CharSequence.class, Double.class, charSequenceToDouble)
         .register(String.class, Iterable.class, stringToIterable)
+        .register(String.class, int[].class, stringToIntArray)
+        .register(String.class, long[].class, stringToLongArray)
+        .register(String.class, double[].class, stringToDoubleArray)
         .register(Iterable.class, String.class, iterableToString)
         .register(Object.class, Iterable.class, objectToIterable)
         .build();
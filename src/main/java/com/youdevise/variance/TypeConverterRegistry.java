@@ -5,4 +5,5 @@ import com.google.common.base.Function;
 public interface TypeConverterRegistry {
     boolean hasConverter(Class<?> sourceType, Class<?> targetType);
     <S, T> Function<? super S, ? extends T> getConverter(Class<S> sourceType, Class<T> targetType);
+    <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceType, Class<T> targetType);
 }
@@ -1,21 +1,61 @@
 package com.youdevise.variance;
 
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 
 public class TypeConverterRegistryBuilder {
 
-    private final TypeConverterDictionary dictionary;
+    private final RegularTypeConverterDictionary dictionary;
+    private int maximumCacheSize = CachingTypeConverterRegistry.UNBOUNDED;
+    private boolean recordCacheStatistics = false;
+    private final ConversionTable<Integer> costs = new ConversionTable<Integer>();
+    private boolean composeConverters = false;
+    private int maximumHops = PathFindingTypeConverterRegistry.UNLIMITED_HOPS;
     
     public TypeConverterRegistryBuilder() {
-        dictionary = new TypeConverterDictionary();
+        dictionary = new RegularTypeConverterDictionary();
     }
     
-    public TypeConverterRegistry build() {
-        return new CachingTypeConverterRegistry(new UncachedTypeConverterRegistry(dictionary));
+    public CachingTypeConverterRegistry build() {
+        FrozenTypeConverterDictionary frozen = dictionary.freeze();
+        TypeConverterRegistry innerRegistry = composeConverters
+                ? new PathFindingTypeConverterRegistry(frozen, costs, maximumHops)
+                : new UncachedTypeConverterRegistry(frozen);
+        return new CachingTypeConverterRegistry(innerRegistry, maximumCacheSize, recordCacheStatistics);
     }
     
     public <S, T> TypeConverterRegistryBuilder register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> converter) {
         dictionary.register(sourceClass, targetClass, converter);
+        costs.remove(sourceClass, targetClass);
+        return this;
+    }
+    
+    public <S, T> TypeConverterRegistryBuilder register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> converter, int cost) {
+        Preconditions.checkArgument(cost > 0, "Conversion cost must be positive, but was %s", cost);
+        dictionary.register(sourceClass, targetClass, converter);
+        costs.remove(sourceClass, targetClass);
+        costs.putIfAbsent(sourceClass, targetClass, cost);
+        return this;
+    }
+    
+    public TypeConverterRegistryBuilder composeConverters() {
+        this.composeConverters = true;
+        return this;
+    }
+    
+    public TypeConverterRegistryBuilder composeConverters(int maximumHops) {
+        this.composeConverters = true;
+        this.maximumHops = maximumHops;
+        return this;
+    }
+    
+    public TypeConverterRegistryBuilder maximumCacheSize(int maximumCacheSize) {
+        this.maximumCacheSize = maximumCacheSize;
+        return this;
+    }
+    
+    public TypeConverterRegistryBuilder recordCacheStatistics() {
+        this.recordCacheStatistics = true;
         return this;
     }
     
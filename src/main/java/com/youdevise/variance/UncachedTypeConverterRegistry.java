@@ -1,7 +1,5 @@
 package com.youdevise.variance;
 
-import java.util.Set;
-
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
@@ -27,13 +25,14 @@ public class UncachedTypeConverterRegistry implements TypeConverterRegistry {
         return converter;
     }
     
+    @Override
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceClass, Class<T> targetClass) {
+    public <S, T> Function<? super S, ? extends T> findConverter(Class<S> sourceClass, Class<T> targetClass) {
         if (targetClass.isAssignableFrom(sourceClass)) {
             return (Function) Functions.identity();
         }
         
-        ClassHierarchyInspector inspector = new ClassHierarchyInspector(dictionary.sourceClasses());
+        ClassHierarchyInspector inspector = dictionary.sourceHierarchy();
         
         Class<? super S> nearestSuperclass = inspector.nearestClassAssignableFrom(sourceClass);
         while (nearestSuperclass != null) {
@@ -47,9 +46,7 @@ public class UncachedTypeConverterRegistry implements TypeConverterRegistry {
     }
 
     private <S, T> Class<? extends T> findTargetSubclass(Class<T> targetClass, Class<? super S> nearestSuperclass) {
-        Set<Class<?>> targetClasses = dictionary.targetClassesFor(nearestSuperclass);
-        ClassHierarchyInspector inspector = new ClassHierarchyInspector(targetClasses);
-        return inspector.nearestClassAssignableTo(targetClass);
+        return dictionary.targetHierarchyFor(nearestSuperclass).nearestClassAssignableTo(targetClass);
     }
 
 }
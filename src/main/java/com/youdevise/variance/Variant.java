@@ -1,20 +1,26 @@
 package com.youdevise.variance;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
-public class Variant extends Number implements Supplier<Object> {
+public abstract class Variant extends Number implements Supplier<Object> {
 
     private static final long serialVersionUID = 6200248721405100437L;
     
+    private static final TypeConversionContext DEFAULT_CONTEXT = CompiledTypeConversionContext.compile(
+            ChainedTypeConversionContext.of(ImplicitTypeConversions.implicitContext, TypeConversions.standardContext));
+    
     @SuppressWarnings({ "rawtypes" })
     public static Variant of(Object value) {
         Preconditions.checkNotNull(value, "A variant cannot have a null value.");
@@ -23,6 +29,10 @@ public class Variant extends Number implements Supplier<Object> {
             return (Variant) value;
         }
         
+        if (VariantArray.isColumnar(value)) {
+            return VariantArray.copyOf(value);
+        }
+        
         if (value.getClass().isArray()) {
             return ofVariants(arrayToVariants(value));
         }
@@ -31,7 +41,23 @@ public class Variant extends Number implements Supplier<Object> {
             return of((Iterable) value);
         }
         
-        return new Variant(value);
+        return new ReferenceVariant(value, defaultContext());
+    }
+    
+    public static Variant ofInt(int value) {
+        return new IntVariant(value, defaultContext());
+    }
+    
+    public static Variant ofLong(long value) {
+        return new LongVariant(value, defaultContext());
+    }
+    
+    public static Variant ofDouble(double value) {
+        return new DoubleVariant(value, defaultContext());
+    }
+    
+    public static Variant ofBoolean(boolean value) {
+        return new BooleanVariant(value, defaultContext());
     }
     
     public static Variant of(Object firstValue, Object...moreValues) {
@@ -39,6 +65,9 @@ public class Variant extends Number implements Supplier<Object> {
     }
     
     public static Variant of(Iterable<?> values) {
+        if (values instanceof Collection) {
+            return ofVariants(Collections2.transform((Collection<?>) values, Variants.toVariant));
+        }
         return ofVariants(Iterables.transform(values, Variants.toVariant));
     }
 
@@ -47,7 +76,7 @@ public class Variant extends Number implements Supplier<Object> {
     }
     
     public static Variant ofVariants(Iterable<Variant> variants) {
-        return new Variant(variants);
+        return new ReferenceVariant(variants, defaultContext());
     }
     
     private static Iterable<Variant> arrayToVariants(Object value) {
@@ -58,88 +87,232 @@ public class Variant extends Number implements Supplier<Object> {
         return results;
     }
     
-    private final Object value;
     private final TypeConversionContext typeConversionContext;
+    private transient InlineCache inlineCache;
     
-    private Variant(Object value) {
-        this(value, new ChainedTypeConversionContext(ImplicitTypeConversions.implicitContext, TypeConversions.standardContext));
+    static TypeConversionContext defaultContext() {
+        return DEFAULT_CONTEXT;
     }
     
+    Variant(TypeConversionContext boundContext) {
+        this.typeConversionContext = boundContext;
+    }
     
-    @SuppressWarnings("unchecked")
-    private Variant(Object value, TypeConversionContext boundContext) {
-        if (value instanceof Iterable) {
-            this.value = bound((Iterable<Variant>) value, boundContext);
-        } else {
-            this.value = value;
+    abstract Variant rebound(TypeConversionContext boundContext);
+    
+    public <C> C as(Class<C> targetClass) {
+        Object value = get();
+        if (targetClass.isInstance(value)) {
+            return targetClass.cast(value);
         }
-        this.typeConversionContext = boundContext;
+        return conversionTo(value, targetClass).apply(value);
     }
-
-    private Iterable<Variant> bound(Iterable<Variant> values, final TypeConversionContext typeConversionContext) {
-        return Iterables.transform(values, new Function<Variant, Variant>() {
-            @Override public Variant apply(Variant arg0) {
-                return new Variant(arg0.value, typeConversionContext);
-            }
-        });
+    
+    private <C> Conversion<C> conversionTo(Object value, Class<C> targetClass) {
+        return conversionFrom(value.getClass(), targetClass);
     }
     
-    public <C> C as(Class<C> targetClass) {
-        Preconditions.checkArgument(context().canConvert(value, targetClass),
+    boolean convertsByDefault(Class<?> sourceClass, Class<?> targetClass, Function<?, ?> standardConverter) {
+        Conversion<?> conversion = conversionFrom(sourceClass, targetClass);
+        return conversion == Conversion.casting() || conversion.applies(standardConverter);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <C> Conversion<C> conversionFrom(Class<?> sourceClass, Class<C> targetClass) {
+        InlineCache cache = inlineCache;
+        if (cache != null && cache.matches(sourceClass, targetClass)) {
+            return (Conversion<C>) cache.conversion;
+        }
+        
+        Conversion<C> conversion = resolve(sourceClass, targetClass);
+        inlineCache = InlineCache.of(sourceClass, targetClass, conversion, context());
+        return conversion;
+    }
+    
+    private <C> Conversion<C> resolve(Class<?> sourceClass, Class<C> targetClass) {
+        Conversion<C> conversion = context().conversionFor(sourceClass, targetClass);
+        Preconditions.checkArgument(conversion.isPossible(),
                                     "Unable to convert a value of type [%s] to [%s] in the current context",
-                                    value.getClass(),
+                                    sourceClass,
                                     targetClass);
-        return context().convert(value, targetClass);
+        return conversion;
+    }
+    
+    private final class ElementConversions<C> {
+        private final Class<C> targetClass;
+        private Class<?> lastClass;
+        private Conversion<C> lastConversion;
+        
+        private ElementConversions(Class<C> targetClass) {
+            this.targetClass = targetClass;
+        }
+        
+        Conversion<C> of(Object element) {
+            if (element.getClass() != lastClass) {
+                lastConversion = resolve(element.getClass(), targetClass);
+                lastClass = element.getClass();
+            }
+            return lastConversion;
+        }
     }
     
-    @SuppressWarnings({ "unchecked" })
-    public <C> Iterable<C> asIterableOf(final Class<C> targetClass) {
-        return Iterables.transform(as(Iterable.class), new Function<Object, C>() {
-            @Override public C apply(Object o) {
-                return context().convert(o, targetClass);
+    private List<Object> elements() {
+        @SuppressWarnings("unchecked")
+        Iterable<Object> elements = as(Iterable.class);
+        return Lists.newArrayList(elements);
+    }
+    
+    private static final class InlineCache {
+        private static final Object NO_SNAPSHOT = new Object();
+        
+        static InlineCache of(Class<?> sourceClass, Class<?> targetClass, Conversion<?> conversion, TypeConversionContext ctx) {
+            switch (ContextStability.of(ctx)) {
+                case STABLE:
+                    return new InlineCache(sourceClass, targetClass, conversion, NO_SNAPSHOT);
+                case IMPLICIT:
+                    TypeConversionContext snapshot = ImplicitTypeConversions.current();
+                    if (snapshot == null || ContextStability.of(snapshot) == ContextStability.STABLE) {
+                        return new InlineCache(sourceClass, targetClass, conversion, snapshot);
+                    }
+                    return null;
+                default:
+                    return null;
             }
-        });
+        }
+        
+        private final Class<?> sourceClass;
+        private final Class<?> targetClass;
+        private final Conversion<?> conversion;
+        private final Object snapshot;
+        
+        private InlineCache(Class<?> sourceClass, Class<?> targetClass, Conversion<?> conversion, Object snapshot) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.conversion = conversion;
+            this.snapshot = snapshot;
+        }
+        
+        boolean matches(Class<?> sourceClass, Class<?> targetClass) {
+            return this.sourceClass == sourceClass
+                && this.targetClass == targetClass
+                && (snapshot == NO_SNAPSHOT || snapshot == ImplicitTypeConversions.current());
+        }
+    }
+    
+    public <C> ConversionView<C> asIterableOf(Class<C> targetClass) {
+        return ConversionView.of(as(Iterable.class), targetClass, context());
+    }
+    
+    public <C> C[] asArrayOf(Class<C> targetClass) {
+        return asIterableOf(targetClass).toArrayOf(targetClass);
+    }
+    
+    public int[] asIntArray() {
+        Object value = get();
+        Conversion<int[]> direct = context().conversionFor(value.getClass(), int[].class);
+        if (direct.isPossible()) {
+            return direct.apply(value);
+        }
+        
+        List<Object> elements = elements();
+        ElementConversions<Integer> conversions = new ElementConversions<Integer>(Integer.class);
+        int[] results = new int[elements.size()];
+        for (int i = 0; i < results.length; i++) {
+            Object element = elements.get(i);
+            results[i] = element instanceof Variant ? ((Variant) element).intValue()
+                                                    : conversions.of(element).applyAsInt(element);
+        }
+        return results;
     }
     
-    public <C> C[] asArrayOf(final Class<C> targetClass) {
-        Iterable<C> iterable = asIterableOf(targetClass);
-        return Iterables.toArray(iterable, targetClass);
+    public long[] asLongArray() {
+        Object value = get();
+        Conversion<long[]> direct = context().conversionFor(value.getClass(), long[].class);
+        if (direct.isPossible()) {
+            return direct.apply(value);
+        }
+        
+        List<Object> elements = elements();
+        ElementConversions<Long> conversions = new ElementConversions<Long>(Long.class);
+        long[] results = new long[elements.size()];
+        for (int i = 0; i < results.length; i++) {
+            Object element = elements.get(i);
+            results[i] = element instanceof Variant ? ((Variant) element).longValue()
+                                                    : conversions.of(element).applyAsLong(element);
+        }
+        return results;
+    }
+    
+    public double[] asDoubleArray() {
+        Object value = get();
+        Conversion<double[]> direct = context().conversionFor(value.getClass(), double[].class);
+        if (direct.isPossible()) {
+            return direct.apply(value);
+        }
+        
+        List<Object> elements = elements();
+        ElementConversions<Double> conversions = new ElementConversions<Double>(Double.class);
+        double[] results = new double[elements.size()];
+        for (int i = 0; i < results.length; i++) {
+            Object element = elements.get(i);
+            results[i] = element instanceof Variant ? ((Variant) element).doubleValue()
+                                                    : conversions.of(element).applyAsDouble(element);
+        }
+        return results;
     }
     
     public Variant in(TypeConversionContext ctx) {
-        return new Variant(value, new ChainedTypeConversionContext(ctx, typeConversionContext));
+        return rebound(ChainedTypeConversionContext.of(ctx, typeConversionContext));
     }
 
     public Class<?> valueClass() {
-        return value.getClass();
+        return get().getClass();
     }
 
     public TypeConversionContext context() {
         return typeConversionContext;
     }
     
+    public boolean isImplicitlyBound() {
+        return typeConversionContext == DEFAULT_CONTEXT;
+    }
+    
     public boolean isConvertibleTo(Class<?> targetClass) {
-        return context().canConvert(value, targetClass);
+        return context().canConvert(get(), targetClass);
     }
 
     @Override
     public int intValue() {
-        return as(Integer.class);
+        Object value = get();
+        return conversionTo(value, Integer.class).applyAsInt(value);
     }
 
     @Override
     public long longValue() {
-        return as(Long.class);
+        Object value = get();
+        return conversionTo(value, Long.class).applyAsLong(value);
     }
 
     @Override
     public float floatValue() {
-        return as(Float.class);
+        Object value = get();
+        return conversionTo(value, Float.class).applyAsFloat(value);
     }
 
     @Override
     public double doubleValue() {
-        return as(Double.class);
+        Object value = get();
+        return conversionTo(value, Double.class).applyAsDouble(value);
+    }
+    
+    public <A extends Appendable> A appendTo(A appendable) throws IOException {
+        Object value = get();
+        if (value instanceof String) {
+            appendable.append((String) value);
+        } else {
+            conversionTo(value, String.class).appendTo(value, appendable);
+        }
+        return appendable;
     }
     
     @Override
@@ -149,19 +322,21 @@ public class Variant extends Number implements Supplier<Object> {
     
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return get().hashCode();
     }
     
     @Override
     public boolean equals(Object o) {
         if (o instanceof Variant) {
-            return Objects.equal(((Variant) o).value, value);
+            return Objects.equal(((Variant) o).get(), get());
         }
         return false;
     }
 
-    @Override
-    public Object get() {
-        return value;
+    boolean hasValue(Object value) {
+        return Objects.equal(get(), value);
     }
+    
+    @Override
+    public abstract Object get();
 }
@@ -0,0 +1,231 @@
+package com.youdevise.variance;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.google.common.base.Preconditions;
+
+public final class VariantArray extends Variant {
+
+    private static final long serialVersionUID = -7391533961786880167L;
+    
+    public static VariantArray ofInts(int...values) {
+        return new VariantArray(values.clone(), defaultContext());
+    }
+    
+    public static VariantArray ofLongs(long...values) {
+        return new VariantArray(values.clone(), defaultContext());
+    }
+    
+    public static VariantArray ofDoubles(double...values) {
+        return new VariantArray(values.clone(), defaultContext());
+    }
+    
+    public static VariantArray ofStrings(String...values) {
+        return new VariantArray(values.clone(), defaultContext());
+    }
+    
+    static VariantArray copyOf(Object array) {
+        if (array instanceof int[]) { return new VariantArray(((int[]) array).clone(), defaultContext()); }
+        if (array instanceof long[]) { return new VariantArray(((long[]) array).clone(), defaultContext()); }
+        if (array instanceof double[]) { return new VariantArray(((double[]) array).clone(), defaultContext()); }
+        return new VariantArray(((String[]) array).clone(), defaultContext());
+    }
+    
+    static VariantArray wrapping(Object array) {
+        return new VariantArray(array, defaultContext());
+    }
+    
+    static boolean isColumnar(Object array) {
+        return array instanceof int[]
+            || array instanceof long[]
+            || array instanceof double[]
+            || array instanceof String[];
+    }
+    
+    private final Object array;
+    
+    VariantArray(Object array, TypeConversionContext boundContext) {
+        super(boundContext);
+        Preconditions.checkArgument(isColumnar(array), "Cannot store a value of type [%s] in a VariantArray", array.getClass());
+        this.array = array;
+    }
+    
+    @Override
+    Variant rebound(TypeConversionContext boundContext) {
+        return new VariantArray(array, boundContext);
+    }
+    
+    Object array() {
+        return array;
+    }
+    
+    public int size() {
+        return Array.getLength(array);
+    }
+    
+    public Class<?> elementClass() {
+        if (array instanceof int[]) { return Integer.class; }
+        if (array instanceof long[]) { return Long.class; }
+        if (array instanceof double[]) { return Double.class; }
+        return String.class;
+    }
+    
+    private Variant elementAt(int index) {
+        if (array instanceof int[]) {
+            return new IntVariant(((int[]) array)[index], context());
+        }
+        if (array instanceof long[]) {
+            return new LongVariant(((long[]) array)[index], context());
+        }
+        if (array instanceof double[]) {
+            return new DoubleVariant(((double[]) array)[index], context());
+        }
+        return new ReferenceVariant(((String[]) array)[index], context());
+    }
+    
+    private Object boxedElementAt(int index) {
+        return Array.get(array, index);
+    }
+    
+    @Override
+    public <C> C[] asArrayOf(Class<C> targetClass) {
+        if (targetClass.isAssignableFrom(Variant.class)) {
+            return super.asArrayOf(targetClass);
+        }
+        Conversion<C> conversion = elementConversionTo(targetClass);
+        
+        @SuppressWarnings("unchecked")
+        C[] results = (C[]) Array.newInstance(targetClass, size());
+        for (int i = 0; i < results.length; i++) {
+            results[i] = conversion.apply(boxedElementAt(i));
+        }
+        return results;
+    }
+    
+    @Override
+    public int[] asIntArray() {
+        if (array instanceof String[] || !convertsByDefault(elementClass(), Integer.class, TypeConversions.toInt)) {
+            Conversion<Integer> conversion = elementConversionTo(Integer.class);
+            int[] results = new int[size()];
+            for (int i = 0; i < results.length; i++) { results[i] = conversion.applyAsInt(boxedElementAt(i)); }
+            return results;
+        }
+        if (array instanceof int[]) {
+            return ((int[]) array).clone();
+        }
+        int[] results = new int[size()];
+        if (array instanceof long[]) {
+            long[] longs = (long[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = (int) longs[i]; }
+        } else {
+            double[] doubles = (double[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = (int) doubles[i]; }
+        }
+        return results;
+    }
+    
+    @Override
+    public long[] asLongArray() {
+        if (array instanceof String[] || !convertsByDefault(elementClass(), Long.class, TypeConversions.toLong)) {
+            Conversion<Long> conversion = elementConversionTo(Long.class);
+            long[] results = new long[size()];
+            for (int i = 0; i < results.length; i++) { results[i] = conversion.applyAsLong(boxedElementAt(i)); }
+            return results;
+        }
+        if (array instanceof long[]) {
+            return ((long[]) array).clone();
+        }
+        long[] results = new long[size()];
+        if (array instanceof int[]) {
+            int[] ints = (int[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = ints[i]; }
+        } else {
+            double[] doubles = (double[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = (long) doubles[i]; }
+        }
+        return results;
+    }
+    
+    @Override
+    public double[] asDoubleArray() {
+        if (array instanceof String[] || !convertsByDefault(elementClass(), Double.class, TypeConversions.toDouble)) {
+            Conversion<Double> conversion = elementConversionTo(Double.class);
+            double[] results = new double[size()];
+            for (int i = 0; i < results.length; i++) { results[i] = conversion.applyAsDouble(boxedElementAt(i)); }
+            return results;
+        }
+        if (array instanceof double[]) {
+            return ((double[]) array).clone();
+        }
+        double[] results = new double[size()];
+        if (array instanceof int[]) {
+            int[] ints = (int[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = ints[i]; }
+        } else {
+            long[] longs = (long[]) array;
+            for (int i = 0; i < results.length; i++) { results[i] = longs[i]; }
+        }
+        return results;
+    }
+    
+    private <C> Conversion<C> elementConversionTo(Class<C> targetClass) {
+        Conversion<C> conversion = context().conversionFor(elementClass(), targetClass);
+        Preconditions.checkArgument(conversion.isPossible(),
+                                    "Unable to convert a value of type [%s] to [%s] in the current context",
+                                    elementClass(),
+                                    targetClass);
+        return conversion;
+    }
+    
+    @Override
+    public int hashCode() {
+        if (array instanceof int[]) { return Arrays.hashCode((int[]) array); }
+        if (array instanceof long[]) { return Arrays.hashCode((long[]) array); }
+        if (array instanceof double[]) { return Arrays.hashCode((double[]) array); }
+        return Arrays.hashCode((String[]) array);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof VariantArray && ((VariantArray) o).array.getClass() == array.getClass()) {
+            return sameElements(array, ((VariantArray) o).array);
+        }
+        return super.equals(o);
+    }
+    
+    @Override
+    boolean hasValue(Object value) {
+        if (isColumnar(value)) {
+            return sameElements(array, value);
+        }
+        return super.hasValue(value);
+    }
+    
+    static boolean sameElements(Object first, Object second) {
+        if (first instanceof int[] && second instanceof int[]) { return Arrays.equals((int[]) first, (int[]) second); }
+        if (first instanceof long[] && second instanceof long[]) { return Arrays.equals((long[]) first, (long[]) second); }
+        if (first instanceof double[] && second instanceof double[]) { return Arrays.equals((double[]) first, (double[]) second); }
+        if (first instanceof String[] && second instanceof String[]) { return Arrays.equals((String[]) first, (String[]) second); }
+        return false;
+    }
+    
+    @Override
+    public Object get() {
+        return new ElementList();
+    }
+    
+    private final class ElementList extends AbstractList<Variant> implements RandomAccess {
+        @Override public Variant get(int index) {
+            return elementAt(index);
+        }
+        
+        @Override public int size() {
+            return VariantArray.this.size();
+        }
+    }
+    
+}
@@ -0,0 +1,77 @@
+package com.youdevise.variance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public final class VariantCodec {
+    private VariantCodec() { }
+    
+    static final byte[] MAGIC = { 'V', 'A', 'R' };
+    public static final int FORMAT_VERSION = 1;
+    
+    static final int TAG_FALSE = 0x01;
+    static final int TAG_TRUE = 0x02;
+    static final int TAG_BYTE = 0x03;
+    static final int TAG_SHORT = 0x04;
+    static final int TAG_INT = 0x05;
+    static final int TAG_LONG = 0x06;
+    static final int TAG_FLOAT = 0x07;
+    static final int TAG_DOUBLE = 0x08;
+    static final int TAG_CHAR = 0x09;
+    static final int TAG_STRING = 0x0A;
+    static final int TAG_BIG_INTEGER = 0x0B;
+    static final int TAG_BIG_DECIMAL = 0x0C;
+    static final int TAG_LIST = 0x10;
+    static final int TAG_MAP = 0x11;
+    static final int TAG_INT_ARRAY = 0x20;
+    static final int TAG_LONG_ARRAY = 0x21;
+    static final int TAG_DOUBLE_ARRAY = 0x22;
+    static final int TAG_STRING_ARRAY = 0x23;
+    
+    static final int MAXIMUM_DEPTH = 512;
+    
+    public static byte[] encode(Variant variant) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            VariantWriter writer = new VariantWriter(bytes);
+            writer.write(variant);
+            writer.close();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static byte[] encode(VariantMap map) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            VariantWriter writer = new VariantWriter(bytes);
+            writer.write(map);
+            writer.close();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    static byte[] encodeHeaderless(Variant variant) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            VariantWriter writer = VariantWriter.headerless(bytes);
+            writer.write(variant);
+            writer.close();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static Variant decode(byte[] bytes) throws IOException {
+        return new VariantReader(ByteBuffer.wrap(bytes)).read();
+    }
+    
+    public static VariantMap decodeMap(byte[] bytes) throws IOException {
+        return new VariantReader(ByteBuffer.wrap(bytes)).readMap();
+    }
+}
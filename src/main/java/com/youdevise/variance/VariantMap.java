@@ -1,77 +1,315 @@
 package com.youdevise.variance;
 
-import java.util.Collection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
-import com.google.common.collect.Maps;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
-public class VariantMap implements Map<Variant, Variant> {
+public class VariantMap extends AbstractMap<Object, Object> {
 
-    private final Map<Variant, Variant> innerMap = Maps.newHashMap();
+    private static final int INITIAL_CAPACITY = 8;
+    
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size = 0;
     
     @Override
     public int size() {
-        return innerMap.size();
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return innerMap.isEmpty();
+        return size == 0;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return innerMap.containsKey(Variant.of(key));
+        return key != null && indexOf(key) >= 0;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return innerMap.containsValue(Variant.of(value));
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && equivalent(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Variant get(Object key) {
-        return innerMap.get(Variant.of(key));
-    }
-
-    @Override
-    public Variant put(Variant key, Variant value) {
-        return innerMap.put(key, value);
+        if (key == null) {
+            return null;
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : Variant.of(values[index]);
     }
     
+    @Override
     public Variant put(Object key, Object value) {
-        return innerMap.put(Variant.of(key), Variant.of(value));
+        Preconditions.checkNotNull(key, "A variant cannot have a null value.");
+        Preconditions.checkNotNull(value, "A variant cannot have a null value.");
+        
+        int hash = hashOf(key);
+        int mask = keys.length - 1;
+        for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && equivalent(keys[i], key)) {
+                Object previous = values[i];
+                values[i] = value;
+                return Variant.of(previous);
+            }
+        }
+        
+        if ((size + 1) * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+            mask = keys.length - 1;
+        }
+        int i = hash & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        size++;
+        return null;
     }
 
     @Override
     public Variant remove(Object key) {
-        return innerMap.remove(Variant.of(key));
-    }
-
-    @Override
-    public void putAll(Map<? extends Variant, ? extends Variant> m) {
-        innerMap.putAll(m);
+        if (key == null) {
+            return null;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = values[index];
+        deleteAt(index);
+        return Variant.of(previous);
     }
 
     @Override
     public void clear() {
-        innerMap.clear();
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(hashes, 0);
+        size = 0;
     }
 
     @Override
-    public Set<Variant> keySet() {
-        return innerMap.keySet();
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, Object>>() {
+            @Override public Iterator<Map.Entry<Object, Object>> iterator() {
+                return new EntryIterator();
+            }
+            
+            @Override public int size() {
+                return size;
+            }
+        };
     }
-
+    
     @Override
-    public Collection<Variant> values() {
-        return innerMap.values();
+    public Set<Object> keySet() {
+        return new AbstractSet<Object>() {
+            @Override public Iterator<Object> iterator() {
+                final Iterator<Map.Entry<Object, Object>> entries = new EntryIterator();
+                return new Iterator<Object>() {
+                    @Override public boolean hasNext() { return entries.hasNext(); }
+                    @Override public Object next() { return entries.next().getKey(); }
+                    @Override public void remove() { entries.remove(); }
+                };
+            }
+            
+            @Override public int size() {
+                return size;
+            }
+            
+            @Override public boolean contains(Object key) {
+                return containsKey(key);
+            }
+            
+            @Override public boolean remove(Object key) {
+                return VariantMap.this.remove(key) != null;
+            }
+        };
     }
-
-    @Override
-    public Set<java.util.Map.Entry<Variant, Variant>> entrySet() {
-        return innerMap.entrySet();
+    
+    private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private int next = advanceFrom(0);
+        private int lastReturned = -1;
+        private List<Object> returnedAgain = null;
+        
+        private int advanceFrom(int index) {
+            while (index < keys.length && (keys[index] == null || wasReturned(keys[index]))) {
+                index++;
+            }
+            return index;
+        }
+        
+        private boolean wasReturned(Object key) {
+            if (returnedAgain == null) {
+                return false;
+            }
+            for (Object returned : returnedAgain) {
+                if (returned == key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override public boolean hasNext() {
+            return next < keys.length;
+        }
+        
+        @Override public Map.Entry<Object, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<Object, Object> entry = new WritableEntry(keys[next], values[next]);
+            lastReturned = next;
+            next = advanceFrom(next + 1);
+            return entry;
+        }
+        
+        @Override public void remove() {
+            Preconditions.checkState(lastReturned >= 0, "next() has not been called, or remove() was already called");
+            Object wrapped = deleteAt(lastReturned);
+            if (wrapped != null) {
+                if (returnedAgain == null) {
+                    returnedAgain = Lists.newArrayList();
+                }
+                returnedAgain.add(wrapped);
+            }
+            next = advanceFrom(lastReturned);
+            lastReturned = -1;
+        }
+    }
+    
+    private final class WritableEntry extends AbstractMap.SimpleEntry<Object, Object> {
+        private static final long serialVersionUID = 1L;
+        
+        private WritableEntry(Object key, Object value) {
+            super(Variant.of(key), Variant.of(value));
+        }
+        
+        @Override public Object setValue(Object value) {
+            super.setValue(Variant.of(value));
+            return put(getKey(), value);
+        }
+    }
+    
+    private int indexOf(Object key) {
+        int hash = hashOf(key);
+        int mask = keys.length - 1;
+        for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && equivalent(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private Object deleteAt(int index) {
+        int mask = keys.length - 1;
+        int hole = index;
+        Object wrapped = null;
+        for (int i = (index + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = hashes[i] & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                if (i < index && hole >= index) {
+                    wrapped = keys[i];
+                }
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hashes[hole] = hashes[i];
+                hole = i;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+        return wrapped;
+    }
+    
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == null) {
+                continue;
+            }
+            int i = oldHashes[j] & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+    
+    private static int hashOf(Object key) {
+        int hash = baseHashOf(key) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static int baseHashOf(Object key) {
+        if (key instanceof int[]) { return Arrays.hashCode((int[]) key); }
+        if (key instanceof long[]) { return Arrays.hashCode((long[]) key); }
+        if (key instanceof double[]) { return Arrays.hashCode((double[]) key); }
+        if (key instanceof Object[]) { return Arrays.hashCode((Object[]) key); }
+        return key.hashCode();
+    }
+    
+    static boolean equivalent(Object first, Object second) {
+        if (first == second) {
+            return true;
+        }
+        if (first instanceof Variant && second instanceof Variant) {
+            return first.equals(second);
+        }
+        if (first instanceof Variant) {
+            return ((Variant) first).hasValue(comparableValueOf(second));
+        }
+        if (second instanceof Variant) {
+            return ((Variant) second).hasValue(comparableValueOf(first));
+        }
+        if (VariantArray.isColumnar(first) && VariantArray.isColumnar(second)) {
+            return first.getClass() == second.getClass() && VariantArray.sameElements(first, second);
+        }
+        return Objects.equal(comparableValueOf(first), comparableValueOf(second));
+    }
+    
+    private static Object comparableValueOf(Object value) {
+        if (VariantArray.isColumnar(value)) {
+            return value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        return value;
     }
 
 }
@@ -0,0 +1,288 @@
+package com.youdevise.variance;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+import static com.youdevise.variance.VariantCodec.*;
+
+public final class VariantReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private final CharsetDecoder decoder = Charset.forName("UTF-8").newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    
+    public VariantReader(InputStream in) throws IOException {
+        this.channel = Channels.newChannel(in);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+        readHeader();
+    }
+    
+    public VariantReader(ByteBuffer bytes) throws IOException {
+        this(bytes, true);
+    }
+    
+    static VariantReader headerless(ByteBuffer bytes) throws IOException {
+        return new VariantReader(bytes, false);
+    }
+    
+    private VariantReader(ByteBuffer bytes, boolean readHeader) throws IOException {
+        this.channel = null;
+        this.buffer = bytes.slice();
+        if (readHeader) {
+            readHeader();
+        }
+    }
+    
+    VariantReader reset(ByteBuffer bytes) {
+        Preconditions.checkState(channel == null, "Only buffer-backed readers can be reset");
+        this.buffer = bytes;
+        return this;
+    }
+    
+    private void readHeader() throws IOException {
+        require(MAGIC.length + 1);
+        for (byte expected : MAGIC) {
+            if (buffer.get() != expected) {
+                throw new IOException("Not an encoded variant stream");
+            }
+        }
+        int version = buffer.get() & 0xFF;
+        if (version != FORMAT_VERSION) {
+            throw new IOException(String.format("Unsupported format version [%s]", version));
+        }
+    }
+    
+    public boolean hasNext() throws IOException {
+        return buffer.hasRemaining() || fill() > 0;
+    }
+    
+    public Variant read() throws IOException {
+        return readVariant(readTag(), 0);
+    }
+    
+    public VariantMap readMap() throws IOException {
+        int tag = readTag();
+        if (tag != TAG_MAP) {
+            throw new IOException(String.format("Expected a map but found tag [%s]", tag));
+        }
+        return readMapBody(0);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private Variant readVariant(int tag, int depth) throws IOException {
+        if (depth > MAXIMUM_DEPTH) {
+            throw new IOException("Encoded variant is nested more than " + MAXIMUM_DEPTH + " levels deep");
+        }
+        switch (tag) {
+            case TAG_FALSE: return Variant.ofBoolean(false);
+            case TAG_TRUE: return Variant.ofBoolean(true);
+            case TAG_BYTE: return Variant.of(require(1).get());
+            case TAG_SHORT: return Variant.of((short) readSignedVarint());
+            case TAG_INT: return Variant.ofInt((int) readSignedVarint());
+            case TAG_LONG: return Variant.ofLong(readSignedVarint());
+            case TAG_FLOAT: return Variant.of(require(4).getFloat());
+            case TAG_DOUBLE: return Variant.ofDouble(require(8).getDouble());
+            case TAG_CHAR: return Variant.of((char) readVarint());
+            case TAG_STRING: return Variant.of(readString());
+            case TAG_BIG_INTEGER: return Variant.of(new BigInteger(readString()));
+            case TAG_BIG_DECIMAL: return Variant.of(new BigDecimal(readString()));
+            case TAG_LIST: return readList(depth);
+            case TAG_MAP: return Variant.of(readMapBody(depth));
+            case TAG_INT_ARRAY: return readIntArray();
+            case TAG_LONG_ARRAY: return readLongArray();
+            case TAG_DOUBLE_ARRAY: return readDoubleArray();
+            case TAG_STRING_ARRAY: return readStringArray();
+            default: throw new IOException(String.format("Unknown tag [%s]", tag));
+        }
+    }
+    
+    private Variant readList(int depth) throws IOException {
+        int size = readCount(1);
+        List<Variant> elements = new ArrayList<Variant>(Math.min(size, BUFFER_SIZE));
+        for (int i = 0; i < size; i++) {
+            elements.add(readVariant(readTag(), depth + 1));
+        }
+        return Variant.ofVariants(elements);
+    }
+    
+    private VariantMap readMapBody(int depth) throws IOException {
+        int size = readCount(2);
+        VariantMap map = new VariantMap();
+        for (int i = 0; i < size; i++) {
+            Variant key = readVariant(readTag(), depth + 1);
+            map.put(key, readVariant(readTag(), depth + 1));
+        }
+        return map;
+    }
+    
+    private Variant readIntArray() throws IOException {
+        int count = readCount(1);
+        int[] values = new int[initialCapacity(count)];
+        for (int i = 0; i < count; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, count));
+            }
+            values[i] = (int) readSignedVarint();
+        }
+        return VariantArray.wrapping(values);
+    }
+    
+    private Variant readLongArray() throws IOException {
+        int count = readCount(1);
+        long[] values = new long[initialCapacity(count)];
+        for (int i = 0; i < count; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, count));
+            }
+            values[i] = readSignedVarint();
+        }
+        return VariantArray.wrapping(values);
+    }
+    
+    private Variant readDoubleArray() throws IOException {
+        int count = readCount(8);
+        double[] values = new double[initialCapacity(count)];
+        for (int i = 0; i < count; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, count));
+            }
+            values[i] = require(8).getDouble();
+        }
+        return VariantArray.wrapping(values);
+    }
+    
+    private Variant readStringArray() throws IOException {
+        int count = readCount(1);
+        String[] values = new String[initialCapacity(count)];
+        for (int i = 0; i < count; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(values.length, count));
+            }
+            values[i] = readString();
+        }
+        return VariantArray.wrapping(values);
+    }
+    
+    private int readTag() throws IOException {
+        return require(1).get() & 0xFF;
+    }
+    
+    private int readLength() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Invalid length [%s]", length));
+        }
+        return (int) length;
+    }
+    
+    private int readCount(int minimumElementSize) throws IOException {
+        int count = readLength();
+        if (channel == null && (long) count * minimumElementSize > buffer.remaining()) {
+            throw new IOException("Unexpected end of stream");
+        }
+        return count;
+    }
+    
+    private static int initialCapacity(int count) {
+        return Math.min(count, BUFFER_SIZE);
+    }
+    
+    private static int grownCapacity(int capacity, int count) {
+        return (int) Math.min(count, capacity * 2L);
+    }
+    
+    private long readSignedVarint() throws IOException {
+        long encoded = readVarint();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+    
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = require(1).get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    private String readString() throws IOException {
+        int length = readLength();
+        ByteBuffer bytes;
+        if (length <= buffer.capacity()) {
+            require(length);
+            bytes = buffer.slice();
+            bytes.limit(length);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] read = new byte[initialCapacity(length)];
+            int count = 0;
+            while (count < length) {
+                if (!buffer.hasRemaining() && fill() <= 0) {
+                    throw new IOException("Unexpected end of stream");
+                }
+                if (count == read.length) {
+                    read = Arrays.copyOf(read, grownCapacity(read.length, length));
+                }
+                int chunk = Math.min(read.length - count, buffer.remaining());
+                buffer.get(read, count, chunk);
+                count += chunk;
+            }
+            bytes = ByteBuffer.wrap(read);
+        }
+        try {
+            return decoder.decode(bytes).toString();
+        } catch (CharacterCodingException e) {
+            throw new IOException("Malformed UTF-8 string");
+        }
+    }
+    
+    private ByteBuffer require(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (fill() <= 0) {
+                throw new IOException("Unexpected end of stream");
+            }
+        }
+        return buffer;
+    }
+    
+    private int fill() throws IOException {
+        if (channel == null) {
+            return -1;
+        }
+        buffer.compact();
+        try {
+            return channel.read(buffer);
+        } finally {
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.youdevise.variance;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+import static com.youdevise.variance.VariantCodec.*;
+
+public final class VariantWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    
+    public VariantWriter(OutputStream out) throws IOException {
+        this(out, true);
+    }
+    
+    static VariantWriter headerless(OutputStream out) throws IOException {
+        return new VariantWriter(out, false);
+    }
+    
+    private VariantWriter(OutputStream out, boolean writeHeader) throws IOException {
+        this.channel = Channels.newChannel(out);
+        if (writeHeader) {
+            buffer.put(MAGIC);
+            buffer.put((byte) FORMAT_VERSION);
+        }
+    }
+    
+    public VariantWriter write(Variant variant) throws IOException {
+        writeVariant(variant, 0);
+        return this;
+    }
+    
+    public VariantWriter write(VariantMap map) throws IOException {
+        writeMap(map, 0);
+        return this;
+    }
+    
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+    
+    private void writeVariant(Variant variant, int depth) throws IOException {
+        if (variant instanceof VariantArray) {
+            writeColumn(((VariantArray) variant).array());
+            return;
+        }
+        writeValue(variant.get(), depth);
+    }
+    
+    private void writeValue(Object value, int depth) throws IOException {
+        if (depth > MAXIMUM_DEPTH) {
+            throw new IllegalArgumentException("Variant is nested more than " + MAXIMUM_DEPTH + " levels deep");
+        }
+        if (value instanceof Variant) {
+            writeVariant((Variant) value, depth);
+        } else if (value instanceof String) {
+            writeTag(TAG_STRING);
+            writeString((String) value);
+        } else if (value instanceof Integer) {
+            writeTag(TAG_INT);
+            writeSignedVarint((Integer) value);
+        } else if (value instanceof Long) {
+            writeTag(TAG_LONG);
+            writeSignedVarint((Long) value);
+        } else if (value instanceof Double) {
+            writeTag(TAG_DOUBLE);
+            ensure(8).putDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            writeTag((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Float) {
+            writeTag(TAG_FLOAT);
+            ensure(4).putFloat((Float) value);
+        } else if (value instanceof Short) {
+            writeTag(TAG_SHORT);
+            writeSignedVarint((Short) value);
+        } else if (value instanceof Byte) {
+            writeTag(TAG_BYTE);
+            ensure(1).put((Byte) value);
+        } else if (value instanceof Character) {
+            writeTag(TAG_CHAR);
+            writeVarint((Character) value);
+        } else if (value instanceof BigInteger) {
+            writeTag(TAG_BIG_INTEGER);
+            writeString(value.toString());
+        } else if (value instanceof BigDecimal) {
+            writeTag(TAG_BIG_DECIMAL);
+            writeString(value.toString());
+        } else if (value instanceof CharSequence) {
+            writeTag(TAG_STRING);
+            writeString((CharSequence) value);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, depth);
+        } else if (value instanceof Iterable) {
+            writeList((Iterable<?>) value, depth);
+        } else if (VariantArray.isColumnar(value)) {
+            writeColumn(value);
+        } else if (value.getClass().isArray()) {
+            writeVariant(Variant.of(value), depth);
+        } else {
+            throw new IllegalArgumentException(String.format("Cannot encode a value of type [%s]", value.getClass()));
+        }
+    }
+    
+    private void writeList(Iterable<?> values, int depth) throws IOException {
+        Collection<?> elements = values instanceof Collection ? (Collection<?>) values : Lists.newArrayList(values);
+        writeTag(TAG_LIST);
+        writeVarint(elements.size());
+        for (Object element : elements) {
+            writeValue(element, depth + 1);
+        }
+    }
+    
+    private void writeMap(Map<?, ?> map, int depth) throws IOException {
+        writeTag(TAG_MAP);
+        writeVarint(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(entry.getKey(), depth + 1);
+            writeValue(entry.getValue(), depth + 1);
+        }
+    }
+    
+    private void writeColumn(Object array) throws IOException {
+        if (array instanceof int[]) {
+            int[] ints = (int[]) array;
+            writeTag(TAG_INT_ARRAY);
+            writeVarint(ints.length);
+            for (int value : ints) {
+                writeSignedVarint(value);
+            }
+        } else if (array instanceof long[]) {
+            long[] longs = (long[]) array;
+            writeTag(TAG_LONG_ARRAY);
+            writeVarint(longs.length);
+            for (long value : longs) {
+                writeSignedVarint(value);
+            }
+        } else if (array instanceof double[]) {
+            double[] doubles = (double[]) array;
+            writeTag(TAG_DOUBLE_ARRAY);
+            writeVarint(doubles.length);
+            for (double value : doubles) {
+                ensure(8).putDouble(value);
+            }
+        } else {
+            String[] strings = (String[]) array;
+            writeTag(TAG_STRING_ARRAY);
+            writeVarint(strings.length);
+            for (String value : strings) {
+                writeString(value);
+            }
+        }
+    }
+    
+    private void writeTag(int tag) throws IOException {
+        ensure(1).put((byte) tag);
+    }
+    
+    private void writeSignedVarint(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+    
+    private void writeVarint(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    private void writeString(CharSequence chars) throws IOException {
+        writeVarint(utf8Length(chars));
+        CharBuffer input = CharBuffer.wrap(chars);
+        encoder.reset();
+        while (encoder.encode(input, buffer, true).isOverflow()) {
+            flush();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flush();
+        }
+    }
+    
+    private static int utf8Length(CharSequence chars) {
+        int length = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length() && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    private ByteBuffer ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        return buffer;
+    }
+}
@@ -1,13 +1,25 @@
 package com.youdevise.variance;
 
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 public final class Variants {
     
     public static final Function<Object, Variant> toVariant = new Function<Object, Variant>() {
         @Override public Variant apply(Object object) { return Variant.of(object); }
     };
+    
+    static final int MINIMUM_CHUNK_SIZE = 4096;
 
     private Variants() { }
 
@@ -32,6 +44,96 @@ public final class Variants {
             }
         };
     }
+
+    public static <T> T[] convertAll(Iterable<Variant> variants, Class<T> targetClass) {
+        List<Variant> inputs = ImmutableList.copyOf(variants);
+        T[] results = newArray(targetClass, inputs.size());
+        convertRange(inputs, 0, inputs.size(), targetClass, results);
+        return results;
+    }
+    
+    public static <T> T[] convertAll(Iterable<Variant> variants, Class<T> targetClass, Executor executor) {
+        List<Variant> inputs = ImmutableList.copyOf(variants);
+        T[] results = newArray(targetClass, inputs.size());
+        ConversionSnapshot snapshot = ImplicitTypeConversions.capture();
+        
+        int chunkCount = chunkCount(inputs.size(), Runtime.getRuntime().availableProcessors());
+        int chunkSize = (inputs.size() + chunkCount - 1) / Math.max(chunkCount, 1);
+        List<FutureTask<Void>> tasks = Lists.newArrayListWithCapacity(chunkCount);
+        for (int from = 0; from < inputs.size(); from += chunkSize) {
+            FutureTask<Void> task = new FutureTask<Void>(snapshot.wrap(chunkConverter(inputs, from, Math.min(from + chunkSize, inputs.size()), targetClass, results)));
+            tasks.add(task);
+            executor.execute(task);
+        }
+        
+        awaitAll(tasks);
+        return results;
+    }
+    
+    static int chunkCount(int size, int parallelism) {
+        return Math.max(1, Math.min(size / MINIMUM_CHUNK_SIZE, parallelism * 4));
+    }
+    
+    private static <T> Callable<Void> chunkConverter(final List<Variant> inputs, final int from, final int to, final Class<T> targetClass, final T[] results) {
+        return new Callable<Void>() {
+            @Override public Void call() {
+                convertRange(inputs, from, to, targetClass, results);
+                return null;
+            }
+        };
+    }
     
+    private static <T> void convertRange(List<Variant> inputs, int from, int to, Class<T> targetClass, T[] results) {
+        TypeConversionContext lastContext = null;
+        Class<?> lastValueClass = null;
+        Conversion<T> conversion = null;
+        for (int i = from; i < to; i++) {
+            Variant variant = inputs.get(i);
+            Object value = variant.get();
+            if (variant.context() != lastContext || value.getClass() != lastValueClass) {
+                lastContext = variant.context();
+                lastValueClass = value.getClass();
+                conversion = lastContext.conversionFor(lastValueClass, targetClass);
+                Preconditions.checkArgument(conversion.isPossible(),
+                                            "Unable to convert a value of type [%s] to [%s] in the current context",
+                                            lastValueClass,
+                                            targetClass);
+            }
+            results[i] = conversion.apply(value);
+        }
+    }
+    
+    private static void awaitAll(List<FutureTask<Void>> tasks) {
+        try {
+            for (FutureTask<Void> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            cancelAll(tasks);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for conversions to complete", e);
+        } catch (ExecutionException e) {
+            cancelAll(tasks);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Conversion failed", cause);
+        }
+    }
+    
+    private static void cancelAll(List<FutureTask<Void>> tasks) {
+        for (FutureTask<Void> task : tasks) {
+            task.cancel(false);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(Class<T> componentClass, int length) {
+        return (T[]) Array.newInstance(componentClass, length);
+    }
     
-}
\ No newline at end of file
+}
@@ -23,8 +23,7 @@ public class CachedTypeConverterRegistryTest {
         final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
         
         context.checking(new Expectations() {{
-            oneOf(mockRegistry).hasConverter(Integer.class, String.class); will(returnValue(true));
-            oneOf(mockRegistry).getConverter(Integer.class, String.class); will(returnValue(intToString));
+            oneOf(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(intToString));
         }});
         
         CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry);
@@ -39,8 +38,7 @@ public class CachedTypeConverterRegistryTest {
         final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
         
         context.checking(new Expectations() {{
-            oneOf(mockRegistry).hasConverter(Integer.class, String.class); will(returnValue(true));
-            oneOf(mockRegistry).getConverter(Integer.class, String.class); will(returnValue(intToString));
+            oneOf(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(intToString));
         }});
         
         CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry);
@@ -55,7 +53,7 @@ public class CachedTypeConverterRegistryTest {
         final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
         
         context.checking(new Expectations() {{
-            allowing(mockRegistry).hasConverter(Integer.class, String.class); will(returnValue(false));
+            allowing(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(null));
         }});
         
         CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry);
@@ -64,4 +62,82 @@ public class CachedTypeConverterRegistryTest {
         cachedRegistry.getConverter(Integer.class, String.class);
     }
     
+    @Test public void
+    missing_converters_are_cached_without_consulting_the_wrapped_registry_again() {
+        final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(mockRegistry).findConverter(Integer.class, Thread.class); will(returnValue(null));
+        }});
+        
+        CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry);
+        
+        assertThat(cachedRegistry.hasConverter(Integer.class, Thread.class), is(false));
+        assertThat(cachedRegistry.hasConverter(Integer.class, Thread.class), is(false));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    records_hits_misses_and_negative_hits() {
+        final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            allowing(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(intToString));
+            allowing(mockRegistry).findConverter(Integer.class, Thread.class); will(returnValue(null));
+        }});
+        
+        CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry, CachingTypeConverterRegistry.UNBOUNDED, true);
+        
+        cachedRegistry.hasConverter(Integer.class, String.class);
+        cachedRegistry.hasConverter(Integer.class, String.class);
+        cachedRegistry.hasConverter(Integer.class, String.class);
+        cachedRegistry.hasConverter(Integer.class, Thread.class);
+        cachedRegistry.hasConverter(Integer.class, Thread.class);
+        
+        CachingTypeConverterRegistry.Statistics statistics = cachedRegistry.statistics();
+        assertThat(statistics.missCount(), is(2L));
+        assertThat(statistics.hitCount(), is(2L));
+        assertThat(statistics.negativeHitCount(), is(1L));
+    }
+    
+    @Test public void
+    evicts_the_eldest_entries_once_the_maximum_size_is_reached() {
+        final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            allowing(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(intToString));
+            allowing(mockRegistry).findConverter(Integer.class, Thread.class); will(returnValue(null));
+            allowing(mockRegistry).findConverter(Long.class, Thread.class); will(returnValue(null));
+        }});
+        
+        CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry, 2, true);
+        
+        cachedRegistry.hasConverter(Integer.class, String.class);
+        cachedRegistry.hasConverter(Integer.class, Thread.class);
+        cachedRegistry.hasConverter(Long.class, Thread.class);
+        
+        assertThat(cachedRegistry.size(), is(2));
+        assertThat(cachedRegistry.statistics().evictionCount(), is(1L));
+        
+        cachedRegistry.hasConverter(Integer.class, String.class);
+        assertThat(cachedRegistry.statistics().missCount(), is(4L));
+    }
+    
+    @SuppressWarnings("rawtypes")
+    @Test public void
+    cache_misses_consult_the_wrapped_registry_exactly_once() {
+        final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(mockRegistry).findConverter(Integer.class, String.class); will(returnValue(intToString));
+            oneOf(mockRegistry).findConverter(Integer.class, Thread.class); will(returnValue(null));
+        }});
+        
+        CachingTypeConverterRegistry cachedRegistry = new CachingTypeConverterRegistry(mockRegistry);
+        
+        assertThat(cachedRegistry.getConverter(Integer.class, String.class), is((Function) intToString));
+        assertThat(cachedRegistry.hasConverter(Integer.class, Thread.class), is(false));
+        context.assertIsSatisfied();
+    }
+    
 }
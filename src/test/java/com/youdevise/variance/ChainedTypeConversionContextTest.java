@@ -0,0 +1,104 @@
+package com.youdevise.variance;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ChainedTypeConversionContextTest {
+
+    private final Mockery context = new Mockery();
+    
+    private final Function<Integer, String> intToString = new Function<Integer, String>() {
+        @Override public String apply(Integer arg0) { return arg0.toString(); }
+    };
+    
+    @SuppressWarnings("rawtypes")
+    @Test public void
+    uses_the_primary_context_conversion_without_consulting_the_secondary_context() {
+        final TypeConversionContext primary = context.mock(TypeConversionContext.class, "primary");
+        final TypeConversionContext secondary = context.mock(TypeConversionContext.class, "secondary");
+        final Conversion<String> conversion = Conversion.applying(intToString);
+        
+        context.checking(new Expectations() {{
+            oneOf(primary).conversionFor(Integer.class, String.class); will(returnValue(conversion));
+        }});
+        
+        ChainedTypeConversionContext ctx = new ChainedTypeConversionContext(primary, secondary);
+        
+        assertThat(ctx.conversionFor(Integer.class, String.class), is((Conversion) conversion));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    falls_back_to_the_secondary_context_if_the_primary_context_cannot_convert() {
+        final TypeConversionContext primary = context.mock(TypeConversionContext.class, "primary");
+        final TypeConversionContext secondary = context.mock(TypeConversionContext.class, "secondary");
+        
+        context.checking(new Expectations() {{
+            oneOf(primary).conversionFor(Integer.class, String.class); will(returnValue(Conversion.impossible()));
+            oneOf(secondary).conversionFor(Integer.class, String.class); will(returnValue(Conversion.applying(intToString)));
+        }});
+        
+        ChainedTypeConversionContext ctx = new ChainedTypeConversionContext(primary, secondary);
+        
+        assertThat(ctx.convert(12, String.class), is("12"));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    cannot_convert_if_neither_context_can_convert() {
+        TypeConversionContext ctx = new ChainedTypeConversionContext(new CastingTypeConversionContext(),
+                                                                     new CastingTypeConversionContext());
+        
+        assertThat(ctx.conversionFor(Integer.class, String.class).isPossible(), is(false));
+        assertThat(ctx.canConvert(12, Number.class), is(true));
+    }
+    
+    @Test public void
+    returns_the_same_instance_for_repeated_chaining_of_the_same_contexts() {
+        TypeConversionContext primary = new CastingTypeConversionContext();
+        TypeConversionContext secondary = TypeConversions.standardContext;
+        
+        assertThat(ChainedTypeConversionContext.of(primary, secondary), sameInstance(ChainedTypeConversionContext.of(primary, secondary)));
+        assertThat(secondary.extendedWith(primary), sameInstance((TypeConversionContext) ChainedTypeConversionContext.of(primary, secondary)));
+    }
+    
+    @Test public void
+    chains_of_the_same_contexts_are_equal() {
+        TypeConversionContext primary = new CastingTypeConversionContext();
+        TypeConversionContext secondary = TypeConversions.standardContext;
+        
+        ChainedTypeConversionContext chain = new ChainedTypeConversionContext(primary, secondary);
+        
+        assertThat(chain, equalTo(new ChainedTypeConversionContext(primary, secondary)));
+        assertThat(chain.hashCode(), equalTo(ChainedTypeConversionContext.of(primary, secondary).hashCode()));
+        assertThat(chain.equals(new ChainedTypeConversionContext(secondary, primary)), is(false));
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test public void
+    variants_bound_to_the_same_contexts_share_conversion_lookups() {
+        final TypeConverterRegistry registry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(registry).findConverter(Integer.class, String.class); will(returnValue((Function) intToString));
+        }});
+        
+        TypeConversionContext ctx = new MatchingTypeConversionContext(new CachingTypeConverterRegistry(registry));
+        Variant first = Variant.of(1).in(ctx);
+        Variant second = Variant.of(2).in(ctx);
+        
+        assertThat(first.context(), sameInstance(second.context()));
+        assertThat(first.as(String.class), is("1"));
+        assertThat(second.as(String.class), is("2"));
+        context.assertIsSatisfied();
+    }
+    
+}
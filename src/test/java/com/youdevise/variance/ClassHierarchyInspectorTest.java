@@ -1,5 +1,8 @@
 package com.youdevise.variance;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.junit.Test;
 
 import com.google.common.collect.Lists;
@@ -110,4 +113,34 @@ public class ClassHierarchyInspectorTest {
         assertThat(inspector.nearestClassAssignableTo(Top.class), equalTo((Class) Upper.class));
     }
     
+    @SuppressWarnings({ "rawtypes" })
+    @Test public void
+    treats_arrays_as_covariant_in_their_component_type() {
+        ClassHierarchyInspector inspector = inspectorOf(Object.class, Object[].class);
+        
+        assertThat(inspector.nearestClassAssignableFrom(String[].class), equalTo((Class) Object[].class));
+        assertThat(inspector.nearestClassAssignableFrom(int[].class), equalTo((Class) Object.class));
+    }
+    
+    @SuppressWarnings({ "rawtypes" })
+    @Test public void
+    finds_nearest_subclasses_through_unregistered_intermediate_classes() {
+        ClassHierarchyInspector inspector = inspectorOf(Integer.class, Long.class, Bottom.class);
+        
+        assertThat(inspector.nearestSubclassesOf(Number.class), equalTo((Collection) Lists.newArrayList(Integer.class, Long.class)));
+        assertThat(inspector.nearestClassAssignableTo(Top.class), equalTo((Class) Bottom.class));
+    }
+    
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test public void
+    lists_registered_classes_assignable_from_X_most_specific_first() {
+        ClassHierarchyInspector inspector = inspectorOf(Top.class, Right.class, Left.class, Lower.class, Upper.class);
+        
+        assertThat((List) inspector.classesAssignableFrom(Lower.class),
+                   equalTo((List) Lists.newArrayList(Lower.class, Left.class, Right.class, Upper.class, Top.class)));
+        assertThat((List) inspector.classesAssignableFrom(Bottom.class),
+                   equalTo((List) Lists.newArrayList(Lower.class, Left.class, Right.class, Upper.class, Top.class)));
+        assertThat((List) inspector.classesAssignableFrom(Right.class),
+                   equalTo((List) Lists.newArrayList(Right.class, Upper.class, Top.class)));
+    }
 }
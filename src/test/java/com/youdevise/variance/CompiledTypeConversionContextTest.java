@@ -0,0 +1,115 @@
+package com.youdevise.variance;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CompiledTypeConversionContextTest {
+
+    private final Mockery context = new Mockery();
+    
+    @Test public void
+    consults_the_layers_of_a_nested_chain_in_order() {
+        final TypeConversionContext first = context.mock(TypeConversionContext.class, "first");
+        final TypeConversionContext second = context.mock(TypeConversionContext.class, "second");
+        final TypeConversionContext third = context.mock(TypeConversionContext.class, "third");
+        
+        context.checking(new Expectations() {{
+            oneOf(first).conversionFor(Integer.class, String.class); will(returnValue(Conversion.impossible()));
+            oneOf(second).conversionFor(Integer.class, String.class); will(returnValue(Conversion.impossible()));
+            oneOf(third).conversionFor(Integer.class, String.class); will(returnValue(Conversion.applying(contextMarker("third"))));
+        }});
+        
+        TypeConversionContext chain = new ChainedTypeConversionContext(first, new ChainedTypeConversionContext(second, third));
+        TypeConversionContext compiled = CompiledTypeConversionContext.compile(chain);
+        
+        assertThat(compiled.convert(12, String.class), is("third"));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    leaves_memoisation_to_the_bounded_registry_caches() {
+        CachingTypeConverterRegistry primary = new TypeConverterRegistryBuilder()
+                .register(Long.class, String.class, new Function<Long, String>() {
+                    @Override public String apply(Long arg0) { return arg0.toString(); }
+                })
+                .maximumCacheSize(1)
+                .recordCacheStatistics()
+                .build();
+        CachingTypeConverterRegistry secondary = new TypeConverterRegistryBuilder()
+                .register(Object.class, String.class, TypeConversions.toString)
+                .recordCacheStatistics()
+                .build();
+        TypeConversionContext compiled = CompiledTypeConversionContext.compile(
+                new ChainedTypeConversionContext(new MatchingTypeConversionContext(primary), new MatchingTypeConversionContext(secondary)));
+        
+        assertThat(compiled.convert(12, String.class), is("12"));
+        assertThat(compiled.convert(13, String.class), is("13"));
+        
+        assertThat(primary.statistics().missCount(), is(1L));
+        assertThat(primary.statistics().negativeHitCount(), is(1L));
+        assertThat(secondary.statistics().missCount(), is(1L));
+        assertThat(secondary.statistics().hitCount(), is(1L));
+        
+        compiled.convert(14L, String.class);
+        compiled.convert(15, String.class);
+        
+        assertThat(primary.size(), is(1));
+        assertThat(primary.statistics().missCount(), is(3L));
+    }
+    
+    @Test public void
+    consults_volatile_layers_on_every_conversion() {
+        final TypeConversionContext[] current = { contextWithMarker("before") };
+        TypeConversionContext changeable = new TypeConversionContext() {
+            @Override public <C> boolean canConvert(Object o, Class<C> targetClass) { return current[0].canConvert(o, targetClass); }
+            @Override public <C> C convert(Object o, Class<C> targetClass) { return current[0].convert(o, targetClass); }
+            @Override public <C> Conversion<C> conversionFor(Class<?> sourceClass, Class<C> targetClass) {
+                return current[0].conversionFor(sourceClass, targetClass);
+            }
+            @Override public TypeConversionContext extendedWith(TypeConversionContext ctx) { return ChainedTypeConversionContext.of(ctx, this); }
+        };
+        
+        TypeConversionContext compiled = CompiledTypeConversionContext.compile(
+                new ChainedTypeConversionContext(changeable, TypeConversions.standardContext));
+        
+        assertThat(compiled.convert(12, String.class), is("before"));
+        current[0] = contextWithMarker("after");
+        assertThat(compiled.convert(12, String.class), is("after"));
+    }
+    
+    @Test public void
+    consults_thread_local_layers_on_every_conversion() {
+        final TypeConversionContext[] current = { contextWithMarker("before") };
+        TypeConversionContext proxy = new ProxyingTypeConversionContext(new Supplier<TypeConversionContext>() {
+            @Override public TypeConversionContext get() { return current[0]; }
+        });
+        
+        TypeConversionContext compiled = CompiledTypeConversionContext.compile(
+                new ChainedTypeConversionContext(proxy, TypeConversions.standardContext));
+        
+        assertThat(compiled.convert(12, String.class), is("before"));
+        current[0] = contextWithMarker("after");
+        assertThat(compiled.convert(12, String.class), is("after"));
+        current[0] = null;
+        assertThat(compiled.convert(12, String.class), is("12"));
+    }
+    
+    private Function<Integer, String> contextMarker(final String marker) {
+        return new Function<Integer, String>() {
+            @Override public String apply(Integer arg0) { return marker; }
+        };
+    }
+    
+    private TypeConversionContext contextWithMarker(String marker) {
+        return MatchingTypeConversionContext.builder()
+                .register(Integer.class, String.class, contextMarker(marker))
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.youdevise.variance;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ConversionScopeTest {
+
+    @Test public void
+    applies_its_context_until_closed() {
+        ConversionScope scope = ImplicitTypeConversions.enterExtendedScope(contextWithMarker("scoped"));
+        try {
+            assertThat(Variant.of(12).as(String.class), is("scoped"));
+        } finally {
+            scope.close();
+        }
+        
+        assertThat(Variant.of(12).as(String.class), is("12"));
+        assertThat(ImplicitTypeConversions.current(), nullValue());
+    }
+    
+    @Test public void
+    nested_scopes_restore_the_enclosing_context() {
+        ConversionScope outer = ImplicitTypeConversions.enterNewScope(contextWithMarker("outer"));
+        try {
+            ConversionScope inner = ImplicitTypeConversions.enterNewScope(contextWithMarker("inner"));
+            try {
+                assertThat(Variant.of(12).as(String.class), is("inner"));
+            } finally {
+                inner.close();
+            }
+            assertThat(Variant.of(12).as(String.class), is("outer"));
+        } finally {
+            outer.close();
+        }
+    }
+    
+    @Test public void
+    reuses_the_same_compiled_context_for_repeated_extensions() {
+        TypeConversionContext base = contextWithMarker("base");
+        TypeConversionContext extension = contextWithMarker("extension");
+        TypeConversionContext nested = contextWithMarker("nested");
+        
+        TypeConversionContext[] first = extendedTwice(base, extension, nested);
+        TypeConversionContext[] second = extendedTwice(base, extension, nested);
+        
+        assertThat(second[0] == first[0], is(true));
+        assertThat(second[1] == first[1], is(true));
+    }
+    
+    @Test public void
+    closing_twice_has_no_further_effect() {
+        ConversionScope outer = ImplicitTypeConversions.enterNewScope(contextWithMarker("outer"));
+        ConversionScope inner = ImplicitTypeConversions.enterNewScope(contextWithMarker("inner"));
+        
+        inner.close();
+        inner.close();
+        assertThat(Variant.of(12).as(String.class), is("outer"));
+        outer.close();
+    }
+    
+    @Test public void
+    rejects_closing_scopes_out_of_order() {
+        ConversionScope outer = ImplicitTypeConversions.enterNewScope(contextWithMarker("outer"));
+        ConversionScope inner = ImplicitTypeConversions.enterNewScope(contextWithMarker("inner"));
+        try {
+            outer.close();
+            throw new AssertionError("Expected out-of-order close to be rejected");
+        } catch (IllegalStateException expected) {
+            // expected
+        } finally {
+            inner.close();
+            outer.close();
+        }
+        
+        assertThat(ImplicitTypeConversions.current(), nullValue());
+    }
+    
+    @Test public void
+    thread_local_contexts_can_also_be_scoped() {
+        ConversionScope scope = ThreadLocalTypeConversionContext.enterExtendedScope(contextWithMarker("scoped"));
+        try {
+            assertThat(ThreadLocalTypeConversionContext.current().convert(12, String.class), is("scoped"));
+        } finally {
+            scope.close();
+        }
+        assertThat(ThreadLocalTypeConversionContext.current().convert(12, String.class), is("12"));
+    }
+    
+    private static TypeConversionContext[] extendedTwice(TypeConversionContext base, TypeConversionContext extension, TypeConversionContext nested) {
+        ConversionScope outer = ImplicitTypeConversions.enterNewScope(base);
+        try {
+            ConversionScope middle = ImplicitTypeConversions.enterExtendedScope(extension);
+            try {
+                TypeConversionContext extended = ImplicitTypeConversions.current();
+                ConversionScope inner = ImplicitTypeConversions.enterExtendedScope(nested);
+                try {
+                    return new TypeConversionContext[] { extended, ImplicitTypeConversions.current() };
+                } finally {
+                    inner.close();
+                }
+            } finally {
+                middle.close();
+            }
+        } finally {
+            outer.close();
+        }
+    }
+    
+    private static TypeConversionContext contextWithMarker(final String marker) {
+        return MatchingTypeConversionContext.builder()
+                .register(Integer.class, String.class, new Function<Integer, String>() {
+                    @Override public String apply(Integer arg0) { return marker; }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.youdevise.variance;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ConversionSnapshotTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    
+    @After public void
+    shut_down_executor() {
+        executor.shutdownNow();
+    }
+    
+    private static final Callable<String> convertTwelve = new Callable<String>() {
+        @Override public String call() { return Variant.of(12).as(String.class); }
+    };
+    
+    @Test public void
+    carries_the_captured_context_to_another_thread() throws Exception {
+        Callable<String> task;
+        ConversionScope scope = ImplicitTypeConversions.enterExtendedScope(contextWithMarker("captured"));
+        try {
+            task = ImplicitTypeConversions.capture().wrap(convertTwelve);
+        } finally {
+            scope.close();
+        }
+        
+        assertThat(executor.submit(task).get(), is("captured"));
+        assertThat(executor.submit(convertTwelve).get(), is("12"));
+    }
+    
+    @Test public void
+    propagating_executor_services_capture_the_context_at_submission() throws Exception {
+        ExecutorService propagating = ImplicitTypeConversions.propagatingTo(executor);
+        
+        ConversionScope scope = ImplicitTypeConversions.enterExtendedScope(contextWithMarker("submitted"));
+        try {
+            assertThat(propagating.submit(convertTwelve).get(), is("submitted"));
+        } finally {
+            scope.close();
+        }
+        assertThat(propagating.submit(convertTwelve).get(), is("12"));
+    }
+    
+    @Test public void
+    propagating_executors_capture_the_context_at_submission() throws Exception {
+        FutureTask<String> task = new FutureTask<String>(convertTwelve);
+        
+        ConversionScope scope = ImplicitTypeConversions.enterExtendedScope(contextWithMarker("submitted"));
+        try {
+            ImplicitTypeConversions.propagatingTo((Executor) executor).execute(task);
+        } finally {
+            scope.close();
+        }
+        assertThat(task.get(1, TimeUnit.SECONDS), is("submitted"));
+    }
+    
+    @Test public void
+    restores_the_previous_context_after_running() {
+        ConversionSnapshot snapshot;
+        ConversionScope scope = ImplicitTypeConversions.enterExtendedScope(contextWithMarker("captured"));
+        try {
+            snapshot = ImplicitTypeConversions.capture();
+        } finally {
+            scope.close();
+        }
+        
+        snapshot.wrap(new Runnable() {
+            @Override public void run() {
+                assertThat(Variant.of(12).as(String.class), is("captured"));
+            }
+        }).run();
+        
+        assertThat(ImplicitTypeConversions.current(), nullValue());
+    }
+    
+    private static TypeConversionContext contextWithMarker(final String marker) {
+        return MatchingTypeConversionContext.builder()
+                .register(Integer.class, String.class, new Function<Integer, String>() {
+                    @Override public String apply(Integer arg0) { return marker; }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.youdevise.variance;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class ConversionViewTest {
+
+    private final Mockery context = new Mockery();
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test public void
+    resolves_each_element_class_only_once_in_a_stable_context() {
+        final TypeConverterRegistry registry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(registry).findConverter(Integer.class, String.class); will(returnValue((Function) TypeConversions.toString));
+            oneOf(registry).findConverter(Long.class, String.class); will(returnValue((Function) TypeConversions.toString));
+        }});
+        
+        ConversionView<String> view = ConversionView.of(Arrays.<Object>asList(1, 2L, 3, 4L), String.class, new MatchingTypeConversionContext(registry));
+        
+        assertThat(Lists.newArrayList(view), contains("1", "2", "3", "4"));
+        assertThat(Lists.newArrayList(view), contains("1", "2", "3", "4"));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    resolves_conversions_again_when_the_implicit_context_changes() {
+        TypeConversionContext negating = MatchingTypeConversionContext.builder()
+                .register(String.class, Integer.class, new Function<String, Integer>() {
+                    @Override public Integer apply(String arg0) { return -Integer.parseInt(arg0); }
+                })
+                .build();
+        ConversionView<Integer> view = ConversionView.of(Arrays.asList("1", "2"), Integer.class, Variant.of(0).context());
+        
+        assertThat(Lists.newArrayList(view), contains(1, 2));
+        ConversionScope scope = ImplicitTypeConversions.enterNewScope(negating);
+        try {
+            assertThat(Lists.newArrayList(view), contains(-1, -2));
+        } finally {
+            scope.close();
+        }
+        assertThat(Lists.newArrayList(view), contains(1, 2));
+    }
+    
+    @Test public void
+    parses_delimited_numbers_from_slices_without_creating_strings() {
+        ConversionView<Integer> ints = ConversionView.of(DelimitedSequence.on(unstringable("1,22,-3"), ','), Integer.class, TypeConversions.standardContext);
+        ConversionView<Double> doubles = ConversionView.of(DelimitedSequence.on(unstringable("0.5,2"), ','), Double.class, TypeConversions.standardContext);
+        
+        assertThat(Lists.newArrayList(ints), contains(1, 22, -3));
+        assertThat(Lists.newArrayList(doubles), contains(0.5, 2.0));
+        assertThat(Variant.of("4,5,6").asIterableOf(Long.class), contains(4L, 5L, 6L));
+    }
+    
+    @Test public void
+    prefers_string_converters_registered_in_the_context_over_slices() {
+        TypeConversionContext negating = MatchingTypeConversionContext.builder()
+                .register(String.class, Integer.class, new Function<String, Integer>() {
+                    @Override public Integer apply(String arg0) { return -Integer.parseInt(arg0); }
+                })
+                .build();
+        
+        assertThat(Variant.of("1,2").in(negating).asIterableOf(Integer.class), contains(-1, -2));
+    }
+    
+    @Test public void
+    reports_the_size_of_the_underlying_collection() {
+        Variant variant = Variant.of(Arrays.asList(1, 2, 3));
+        
+        assertThat(variant.asIterableOf(String.class).size(), is(3));
+    }
+    
+    @Test public void
+    converts_each_element_again_on_every_iteration_by_default() {
+        CountingConverter counter = new CountingConverter();
+        ConversionView<String> view = ConversionView.of(Arrays.asList(1, 2), String.class, contextWith(counter));
+        
+        Lists.newArrayList(view);
+        Lists.newArrayList(view);
+        
+        assertThat(counter.conversions.get(), is(4));
+    }
+    
+    @Test public void
+    memoised_views_convert_each_element_at_most_once() {
+        CountingConverter counter = new CountingConverter();
+        ConversionView<String> view = ConversionView.of(Arrays.asList(1, 2), String.class, contextWith(counter)).memoised();
+        
+        List<String> first = Lists.newArrayList(view);
+        List<String> second = Lists.newArrayList(view);
+        
+        assertThat(second, equalTo(first));
+        assertThat(second, contains("#1", "#2"));
+        assertThat(counter.conversions.get(), is(2));
+    }
+    
+    @Test(expected=IllegalArgumentException.class) public void
+    rejects_elements_that_cannot_be_converted() {
+        Lists.newArrayList(ConversionView.of(Arrays.asList(1), Variant.class, MatchingTypeConversionContext.builder().build()));
+    }
+    
+    private static TypeConversionContext contextWith(CountingConverter counter) {
+        return MatchingTypeConversionContext.builder().register(Integer.class, String.class, counter).build();
+    }
+    
+    private static final class CountingConverter implements Function<Integer, String> {
+        private final AtomicInteger conversions = new AtomicInteger();
+        
+        @Override public String apply(Integer arg0) {
+            conversions.incrementAndGet();
+            return "#" + arg0;
+        }
+    }
+    
+    private static CharSequence unstringable(final String chars) {
+        return new CharSequence() {
+            @Override public int length() { return chars.length(); }
+            @Override public char charAt(int index) { return chars.charAt(index); }
+            @Override public CharSequence subSequence(int start, int end) { throw new UnsupportedOperationException(); }
+            @Override public String toString() { throw new UnsupportedOperationException(); }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.youdevise.variance;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class DelimitedSequenceTest {
+
+    @Test public void
+    splits_like_a_comma_splitter() {
+        assertThat(tokensOf("a,b,,c"), contains("a", "b", "", "c"));
+        assertThat(tokensOf(""), contains(""));
+        assertThat(tokensOf(",a,"), contains("", "a", ""));
+        assertThat(DelimitedSequence.on("a,b,,c", ','), contains("a", "b", "", "c"));
+    }
+    
+    @Test public void
+    knows_its_size_without_creating_tokens() {
+        assertThat(DelimitedSequence.on("1,2,3", ',').size(), is(3));
+        assertThat(DelimitedSequence.on("", ',').size(), is(1));
+    }
+    
+    @Test public void
+    yields_slices_of_the_original_sequence() {
+        CharSequence token = DelimitedSequence.on("12,345", ',').slices().iterator().next();
+        
+        assertThat(token.length(), is(2));
+        assertThat(token.charAt(1), is('2'));
+        assertThat(token.subSequence(1, 2).toString(), is("2"));
+        assertThat(token.hashCode(), is("12".hashCode()));
+    }
+    
+    @Test public void
+    yields_plain_strings_through_the_standard_iterable_conversion() {
+        Iterable<?> elements = Variant.of("a,b").as(Iterable.class);
+        
+        assertThat(Lists.newArrayList(elements), equalTo(Lists.<Object>newArrayList("a", "b")));
+        assertThat(elements.iterator().next(), is((Object) "a"));
+    }
+    
+    @Test public void
+    parses_delimited_numbers_into_primitive_arrays() {
+        assertThat(DelimitedSequence.on("1,-2,3", ',').toIntArray(), equalTo(new int[] { 1, -2, 3 }));
+        assertThat(DelimitedSequence.on("4;5", ';').toLongArray(), equalTo(new long[] { 4L, 5L }));
+        assertThat(DelimitedSequence.on("1.5,2", ',').toDoubleArray(), equalTo(new double[] { 1.5, 2.0 }));
+    }
+    
+    @Test public void
+    delimited_strings_convert_to_primitive_arrays_in_the_standard_context() {
+        assertThat(Variant.of("1,2,3").asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+        assertThat(Variant.of("1,2,3").asLongArray(), equalTo(new long[] { 1L, 2L, 3L }));
+        assertThat(Variant.of("0.5,1").asDoubleArray(), equalTo(new double[] { 0.5, 1.0 }));
+        assertThat(Variant.of("1,2,3").asIterableOf(Integer.class), contains(1, 2, 3));
+    }
+    
+    private static List<String> tokensOf(String source) {
+        List<String> tokens = Lists.newArrayList();
+        for (CharSequence token : DelimitedSequence.on(source, ',').slices()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
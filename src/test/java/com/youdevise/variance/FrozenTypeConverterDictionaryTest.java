@@ -0,0 +1,42 @@
+package com.youdevise.variance;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class FrozenTypeConverterDictionaryTest {
+
+    @SuppressWarnings("rawtypes")
+    @Test public void
+    contains_every_converter_in_the_dictionary_it_was_copied_from() {
+        RegularTypeConverterDictionary dictionary = new RegularTypeConverterDictionary();
+        dictionary.register(Number.class, Integer.class, TypeConversions.toInt);
+        dictionary.register(Number.class, Long.class, TypeConversions.toLong);
+        dictionary.register(String.class, Integer.class, TypeConversions.stringToInt);
+        
+        FrozenTypeConverterDictionary frozen = dictionary.freeze();
+        
+        assertThat(frozen.converterFor(Number.class, Integer.class), is((Function) TypeConversions.toInt));
+        assertThat(frozen.converterFor(Number.class, Long.class), is((Function) TypeConversions.toLong));
+        assertThat(frozen.converterFor(String.class, Integer.class), is((Function) TypeConversions.stringToInt));
+        assertThat(frozen.converterFor(String.class, Long.class), nullValue());
+        assertThat(frozen.targetClassesFor(Thread.class).isEmpty(), is(true));
+    }
+    
+    @Test public void
+    is_unaffected_by_later_registrations() {
+        RegularTypeConverterDictionary dictionary = new RegularTypeConverterDictionary();
+        dictionary.register(Number.class, Integer.class, TypeConversions.toInt);
+        
+        FrozenTypeConverterDictionary frozen = dictionary.freeze();
+        dictionary.register(String.class, Integer.class, TypeConversions.stringToInt);
+        
+        assertThat(frozen.sourceClasses().size(), is(1));
+        assertThat(frozen.converterFor(String.class, Integer.class), nullValue());
+    }
+    
+}
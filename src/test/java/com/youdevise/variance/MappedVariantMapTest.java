@@ -0,0 +1,102 @@
+package com.youdevise.variance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MappedVariantMapTest {
+
+    private File file;
+    
+    @Before public void
+    create_file() throws IOException {
+        file = File.createTempFile("variance", ".vmap");
+    }
+    
+    @After public void
+    delete_file() {
+        file.delete();
+    }
+    
+    @Test public void
+    looks_up_values_written_from_a_variant_map() throws IOException {
+        VariantMap source = new VariantMap();
+        for (int i = 0; i < 1000; i++) {
+            source.put("key" + i, i);
+        }
+        source.put(Variant.ofInt(7), Variant.of("a", "b"));
+        
+        MappedVariantMap.write(source, file);
+        MappedVariantMap mapped = MappedVariantMap.open(file);
+        
+        assertThat(mapped.size(), is(1001));
+        assertThat(mapped.get("key500").intValue(), is(500));
+        assertThat(mapped.get(Variant.of("key999")).intValue(), is(999));
+        assertThat(mapped.get(7).toString(), is("a,b"));
+        assertThat(mapped.containsKey("key0"), is(true));
+        assertThat(mapped.containsKey("key1000"), is(false));
+        assertThat(mapped.get(new Object()), is(nullValue()));
+        assertThat(mapped.containsValue(42), is(true));
+    }
+    
+    @Test public void
+    iterates_over_every_entry() throws IOException {
+        VariantMap source = new VariantMap();
+        source.put("one", 1);
+        source.put("two", 2.0);
+        
+        MappedVariantMap.write(source, file);
+        
+        assertThat(MappedVariantMap.open(file), is((Object) source));
+    }
+    
+    @Test public void
+    matches_keys_the_same_way_as_a_heap_variant_map() throws IOException {
+        VariantMap source = new VariantMap();
+        source.put("k", 1);
+        
+        MappedVariantMap.write(source, file);
+        MappedVariantMap mapped = MappedVariantMap.open(file);
+        
+        assertThat(mapped.get(new StringBuilder("k")), is(source.get(new StringBuilder("k"))));
+        assertThat(mapped.containsKey(new StringBuilder("k")), is(false));
+        assertThat(mapped.get(Variant.of("k")).intValue(), is(1));
+    }
+    
+    @Test public void
+    opens_an_empty_map() throws IOException {
+        MappedVariantMap.write(new VariantMap(), file);
+        
+        MappedVariantMap mapped = MappedVariantMap.open(file);
+        assertThat(mapped.isEmpty(), is(true));
+        assertThat(mapped.get("anything"), is(nullValue()));
+    }
+    
+    @Test(expected=UnsupportedOperationException.class) public void
+    is_read_only() throws IOException {
+        MappedVariantMap.write(new VariantMap(), file);
+        
+        MappedVariantMap.open(file).put("key", "value");
+    }
+    
+    @Test(expected=IOException.class) public void
+    rejects_truncated_files() throws IOException {
+        VariantMap source = new VariantMap();
+        source.put("key", "value");
+        MappedVariantMap.write(source, file);
+        
+        RandomAccessFile truncated = new RandomAccessFile(file, "rw");
+        truncated.setLength(truncated.length() - 1);
+        truncated.close();
+        
+        MappedVariantMap.open(file);
+    }
+}
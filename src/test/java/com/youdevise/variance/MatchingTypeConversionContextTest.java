@@ -57,4 +57,56 @@ public class MatchingTypeConversionContextTest {
         Object o = 12;
         assertThat(ctx.convert(o, String.class), Matchers.is("The number 12"));
     }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test public void
+    resolves_each_conversion_with_a_single_registry_lookup() {
+        final TypeConverterRegistry mockRegistry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(mockRegistry).findConverter(Integer.class, String.class); will(returnValue((Function) TypeConversions.toString));
+            oneOf(mockRegistry).findConverter(Integer.class, Thread.class); will(returnValue(null));
+        }});
+        MatchingTypeConversionContext ctx = new MatchingTypeConversionContext(mockRegistry);
+        
+        assertThat(ctx.conversionFor(Integer.class, String.class).apply(12), Matchers.is("12"));
+        assertThat(ctx.conversionFor(Integer.class, Thread.class).isPossible(), Matchers.is(false));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    leaves_caching_and_statistics_to_the_registry() {
+        CachingTypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Object.class, String.class, TypeConversions.toString)
+                .recordCacheStatistics()
+                .build();
+        MatchingTypeConversionContext ctx = new MatchingTypeConversionContext(registry);
+        
+        Object o = 12;
+        ctx.convert(o, String.class);
+        ctx.convert(o, String.class);
+        ctx.convert(o, String.class);
+        
+        assertThat(registry.statistics().missCount(), Matchers.is(1L));
+        assertThat(registry.statistics().hitCount(), Matchers.is(2L));
+    }
+    
+    @Test public void
+    records_a_single_cold_lookup_as_exactly_one_miss() {
+        CachingTypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Object.class, String.class, TypeConversions.toString)
+                .recordCacheStatistics()
+                .build();
+        MatchingTypeConversionContext ctx = new MatchingTypeConversionContext(registry);
+        
+        ctx.conversionFor(Integer.class, String.class);
+        
+        assertThat(registry.statistics().missCount(), Matchers.is(1L));
+        assertThat(registry.statistics().hitCount(), Matchers.is(0L));
+        
+        Variant.of(12L).in(ctx).as(String.class);
+        
+        assertThat(registry.statistics().missCount(), Matchers.is(2L));
+        assertThat(registry.statistics().hitCount(), Matchers.is(0L));
+    }
 }
@@ -0,0 +1,111 @@
+package com.youdevise.variance;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class NumberParsingTest {
+
+    @Test public void
+    parses_integers_like_the_jdk() {
+        String[] inputs = { "0", "-0", "+7", "12345", "-2147483648", "2147483647", "\u0661\u0662" };
+        for (String input : inputs) {
+            assertThat(input, NumberParsing.parseInt(input), is(Integer.parseInt(input)));
+        }
+        assertThat(NumberParsing.parseLong("-9223372036854775808"), is(Long.MIN_VALUE));
+        assertThat(NumberParsing.parseLong("9223372036854775807"), is(Long.MAX_VALUE));
+    }
+    
+    @Test(expected=NumberFormatException.class) public void
+    rejects_integers_that_overflow() {
+        NumberParsing.parseInt("2147483648");
+    }
+    
+    @Test(expected=NumberFormatException.class) public void
+    rejects_malformed_integers() {
+        NumberParsing.parseLong("12a");
+    }
+    
+    @Test public void
+    parses_a_slice_of_a_larger_buffer() {
+        String buffer = "id=12345;price=-12.5e1;";
+        
+        assertThat(NumberParsing.parseInt(buffer, 3, 8), is(12345));
+        assertThat(NumberParsing.parseDouble(buffer, 15, 22), is(-125.0));
+    }
+    
+    @Test public void
+    returns_the_failure_value_in_try_mode() {
+        assertThat(NumberParsing.tryParseInt("", -1), is(-1));
+        assertThat(NumberParsing.tryParseInt("-", -1), is(-1));
+        assertThat(NumberParsing.tryParseInt("99999999999", -1), is(-1));
+        assertThat(NumberParsing.tryParseLong("abc", -1L), is(-1L));
+        assertThat(NumberParsing.tryParseDouble("abc", -1.0), is(-1.0));
+        assertThat(NumberParsing.tryParseDouble("1.2.3", -1.0), is(-1.0));
+        assertThat(NumberParsing.tryParseFloat("1e", -1.0f), is(-1.0f));
+        assertThat(Double.isNaN(NumberParsing.tryParseDouble("NaN", -1.0)), is(true));
+    }
+    
+    @Test public void
+    parses_floating_point_numbers_exactly_like_the_jdk() {
+        String[] inputs = { "0", "-0", "1.", ".5", "3.14159", "1e22", "1e23", "123456789012345678", "4.9e-324",
+                            "1.7976931348623157E308", "0.1", "-2.5E-3", " 1.5 ", "1d", "Infinity", "0x1p3" };
+        for (String input : inputs) {
+            assertThat(input, NumberParsing.parseDouble(input), equalTo(Double.parseDouble(input)));
+            assertThat(input, NumberParsing.parseFloat(input), equalTo(Float.parseFloat(input)));
+        }
+        
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String input = Long.toString(random.nextLong() % 10000000000L) + "." + Math.abs(random.nextInt() % 100000);
+            assertThat(input, NumberParsing.parseDouble(input), equalTo(Double.parseDouble(input)));
+            assertThat(input, NumberParsing.parseFloat(input), equalTo(Float.parseFloat(input)));
+        }
+    }
+    
+    @Test public void
+    rejects_malformed_floating_point_numbers_exactly_like_the_jdk() {
+        String[] inputs = { "12abc", "1e5x", "1.5f", "1.5F", "2D", "1.5ff", ".", "-.", "e5", ".e5", "1e+", "0x", "0x.p1",
+                            "0x1", "0x1.8p-2", "0X1P+3d", "0x1g", "-NaN", "+Infinity", "Infinityx", "nan", " \t1.5\n", "", " " };
+        for (String input : inputs) {
+            assertParsesLikeTheJdk(input);
+        }
+        
+        String alphabet = "0123456789.eE+-xXpPfFdDaN ";
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder input = new StringBuilder();
+            for (int length = random.nextInt(6); length >= 0; length--) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertParsesLikeTheJdk(input.toString());
+        }
+    }
+    
+    @Test public void
+    converts_char_sequences_to_numbers_in_the_standard_context() {
+        assertThat(Variant.of(new StringBuilder("42")).intValue(), is(42));
+        assertThat(Variant.of(CharBuffer.wrap("x1.5x", 1, 4)).doubleValue(), is(1.5));
+        assertThat(Variant.of(new StringBuilder("7")).as(Long.class), is(7L));
+    }
+    
+    private static void assertParsesLikeTheJdk(String input) {
+        double failure = -12345.5;
+        Double expectedDouble;
+        Float expectedFloat;
+        try {
+            expectedDouble = Double.parseDouble(input);
+            expectedFloat = Float.parseFloat(input);
+        } catch (NumberFormatException e) {
+            expectedDouble = failure;
+            expectedFloat = (float) failure;
+        }
+        assertThat(input, NumberParsing.tryParseDouble(input, failure), equalTo(expectedDouble));
+        assertThat(input, NumberParsing.tryParseFloat(input, (float) failure), equalTo(expectedFloat));
+    }
+}
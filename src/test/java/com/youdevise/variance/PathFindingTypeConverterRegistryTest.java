@@ -0,0 +1,128 @@
+package com.youdevise.variance;
+
+import java.util.Date;
+import java.util.Timer;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PathFindingTypeConverterRegistryTest {
+
+    private static final Function<Date, Long> dateToMillis = new Function<Date, Long>() {
+        @Override public Long apply(Date arg0) { return arg0.getTime(); }
+    };
+    
+    private static final Function<Long, String> millisToString = new Function<Long, String>() {
+        @Override public String apply(Long arg0) { return "millis:" + arg0; }
+    };
+    
+    private static final Function<Date, String> dateToString = new Function<Date, String>() {
+        @Override public String apply(Date arg0) { return "date:" + arg0.getTime(); }
+    };
+    
+    @SuppressWarnings("rawtypes")
+    @Test public void
+    composes_converters_through_intermediate_types() {
+        TypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Date.class, String.class, dateToString)
+                .register(String.class, Iterable.class, TypeConversions.stringToIterable)
+                .composeConverters()
+                .build();
+        
+        Function<? super Date, ? extends Iterable> converter = registry.getConverter(Date.class, Iterable.class);
+        assertThat(Iterables.getOnlyElement(converter.apply(new Date(12))).toString(), is("date:12"));
+    }
+    
+    @Test public void
+    prefers_direct_converters() {
+        TypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Date.class, Long.class, dateToMillis)
+                .register(Long.class, String.class, millisToString)
+                .register(Date.class, String.class, dateToString)
+                .composeConverters()
+                .build();
+        
+        assertThat(registry.getConverter(Date.class, String.class).apply(new Date(12)), is("date:12"));
+    }
+    
+    @Test public void
+    chooses_the_cheapest_path() {
+        TypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Date.class, Long.class, dateToMillis)
+                .register(Long.class, String.class, millisToString)
+                .register(Date.class, String.class, dateToString, 5)
+                .register(String.class, StringBuilder.class, new Function<String, StringBuilder>() {
+                    @Override public StringBuilder apply(String arg0) { return new StringBuilder(arg0); }
+                })
+                .composeConverters()
+                .build();
+        
+        assertThat(registry.getConverter(Date.class, StringBuilder.class).apply(new Date(12)).toString(), is("millis:12"));
+    }
+    
+    @Test public void
+    starts_each_hop_from_the_most_specific_registered_source() {
+        TypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Thread.class, String.class, new Function<Thread, String>() {
+                    @Override public String apply(Thread arg0) { return "thread"; }
+                })
+                .register(Timer.class, String.class, new Function<Timer, String>() {
+                    @Override public String apply(Timer arg0) { return "timer"; }
+                })
+                .register(Object.class, String.class, new Function<Object, String>() {
+                    @Override public String apply(Object arg0) { return "object"; }
+                })
+                .register(String.class, StringBuilder.class, new Function<String, StringBuilder>() {
+                    @Override public StringBuilder apply(String arg0) { return new StringBuilder(arg0); }
+                })
+                .composeConverters()
+                .build();
+        
+        assertThat(registry.getConverter(Thread.class, StringBuilder.class).apply(new Thread()).toString(), is("thread"));
+        Timer timer = new Timer(true);
+        try {
+            assertThat(registry.getConverter(Timer.class, StringBuilder.class).apply(timer).toString(), is("timer"));
+        } finally {
+            timer.cancel();
+        }
+        assertThat(registry.getConverter(Date.class, StringBuilder.class).apply(new Date()).toString(), is("object"));
+    }
+    
+    @Test public void
+    respects_the_hop_limit() {
+        TypeConverterRegistryBuilder builder = new TypeConverterRegistryBuilder()
+                .register(Date.class, Long.class, dateToMillis)
+                .register(Long.class, String.class, millisToString)
+                .register(String.class, Iterable.class, TypeConversions.stringToIterable);
+        
+        assertThat(builder.composeConverters(2).build().hasConverter(Date.class, Iterable.class), is(false));
+        assertThat(builder.composeConverters(3).build().hasConverter(Date.class, Iterable.class), is(true));
+    }
+    
+    @Test public void
+    does_not_compose_unless_asked_to() {
+        TypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Date.class, Long.class, dateToMillis)
+                .register(Long.class, String.class, millisToString)
+                .build();
+        
+        assertThat(registry.hasConverter(Date.class, String.class), is(false));
+    }
+    
+    @Test public void
+    caches_composed_converters() {
+        CachingTypeConverterRegistry registry = new TypeConverterRegistryBuilder()
+                .register(Date.class, Long.class, dateToMillis)
+                .register(Long.class, String.class, millisToString)
+                .composeConverters()
+                .build();
+        
+        assertThat(registry.getConverter(Date.class, String.class), is((Object) registry.getConverter(Date.class, String.class)));
+        assertThat(registry.getConverter(Date.class, String.class).apply(new Date(12)), is("millis:12"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.youdevise.variance;
+
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class VariantArrayTest {
+
+    @Test public void
+    wraps_primitive_and_string_arrays() {
+        assertThat(Variant.of(new int[] { 1, 2, 3 }), instanceOf(VariantArray.class));
+        assertThat(Variant.of(new long[] { 1L }), instanceOf(VariantArray.class));
+        assertThat(Variant.of(new double[] { 1.0 }), instanceOf(VariantArray.class));
+        assertThat(Variant.of(new String[] { "a" }), instanceOf(VariantArray.class));
+    }
+    
+    @Test public void
+    converts_between_primitive_columns() {
+        VariantArray ints = VariantArray.ofInts(1, 2, 3);
+        
+        assertThat(ints.asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+        assertThat(ints.asLongArray(), equalTo(new long[] { 1L, 2L, 3L }));
+        assertThat(ints.asDoubleArray(), equalTo(new double[] { 1.0, 2.0, 3.0 }));
+        assertThat(VariantArray.ofDoubles(1.5, 2.5).asIntArray(), equalTo(new int[] { 1, 2 }));
+    }
+    
+    @Test public void
+    parses_string_columns_into_primitive_columns() {
+        VariantArray strings = VariantArray.ofStrings("1", "2", "3");
+        
+        assertThat(strings.asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+        assertThat(strings.asDoubleArray(), equalTo(new double[] { 1.0, 2.0, 3.0 }));
+    }
+    
+    @Test public void
+    converts_elements_to_an_array_of_the_target_class() {
+        assertThat(VariantArray.ofInts(1, 2).asArrayOf(String.class), equalTo(new String[] { "1", "2" }));
+        assertThat(VariantArray.ofStrings("1", "2").asArrayOf(Long.class), equalTo(new Long[] { 1L, 2L }));
+    }
+    
+    @Test public void
+    uses_its_bound_context_for_element_conversions() {
+        TypeConversionContext ctx = MatchingTypeConversionContext.builder()
+                .register(Integer.class, String.class, new Function<Integer, String>() {
+                    @Override public String apply(Integer arg0) { return "#" + arg0; }
+                })
+                .build();
+        
+        Variant column = VariantArray.ofInts(1, 2).in(ctx);
+        
+        assertThat(column.asArrayOf(String.class), equalTo(new String[] { "#1", "#2" }));
+        assertThat(Iterables.getFirst(column.asIterableOf(Variant.class), null).toString(), is("#1"));
+    }
+    
+    @Test public void
+    converts_numeric_columns_through_their_bound_context() {
+        TypeConversionContext doubling = MatchingTypeConversionContext.builder()
+                .register(Integer.class, Double.class, new Function<Integer, Double>() {
+                    @Override public Double apply(Integer arg0) { return arg0 * 2.0; }
+                })
+                .build();
+        
+        assertThat(Variant.of(new int[] { 21 }).in(doubling).asDoubleArray(), equalTo(new double[] { 42.0 }));
+        assertThat(Variant.of(21, 22).in(doubling).asDoubleArray(), equalTo(new double[] { 42.0, 44.0 }));
+        assertThat(Variant.of(new int[] { 21 }).in(doubling).asLongArray(), equalTo(new long[] { 21L }));
+    }
+    
+    @Test public void
+    exposes_elements_as_variants() {
+        Variant[] elements = VariantArray.ofLongs(1L, 2L).asArrayOf(Variant.class);
+        
+        assertThat(elements.length, is(2));
+        assertThat(elements[1], equalTo(Variant.ofLong(2L)));
+    }
+    
+    @Test public void
+    compares_by_contents() {
+        assertThat(VariantArray.ofInts(1, 2), equalTo(VariantArray.ofInts(1, 2)));
+        assertThat(VariantArray.ofInts(1, 2).hashCode(), equalTo(VariantArray.ofInts(1, 2).hashCode()));
+        assertThat(VariantArray.ofInts(1, 2).equals(VariantArray.ofInts(2, 1)), is(false));
+    }
+    
+    @Test public void
+    generic_variants_also_convert_to_primitive_columns() {
+        assertThat(Variant.of(1, "2", 3L).asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+    }
+    
+    @Test public void
+    copies_the_arrays_it_is_given() {
+        int[] ints = { 1, 2 };
+        String[] strings = { "a", "b" };
+        Variant wrappedInts = VariantArray.ofInts(ints);
+        Variant wrappedStrings = VariantArray.ofStrings(strings);
+        Variant converted = Variant.of(ints);
+        
+        ints[0] = 99;
+        strings[0] = "z";
+        
+        assertThat(wrappedInts.asIntArray(), equalTo(new int[] { 1, 2 }));
+        assertThat(converted.asIntArray(), equalTo(new int[] { 1, 2 }));
+        assertThat(wrappedStrings.asArrayOf(String.class), equalTo(new String[] { "a", "b" }));
+    }
+}
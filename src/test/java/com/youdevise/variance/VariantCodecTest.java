@@ -0,0 +1,121 @@
+package com.youdevise.variance;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class VariantCodecTest {
+
+    @Test public void
+    round_trips_scalar_variants() throws IOException {
+        assertRoundTrips(Variant.ofInt(-42));
+        assertRoundTrips(Variant.ofLong(Long.MIN_VALUE));
+        assertRoundTrips(Variant.ofDouble(3.25));
+        assertRoundTrips(Variant.ofBoolean(true));
+        assertRoundTrips(Variant.of(1.5f));
+        assertRoundTrips(Variant.of((short) 7));
+        assertRoundTrips(Variant.of((byte) -3));
+        assertRoundTrips(Variant.of('x'));
+        assertRoundTrips(Variant.of(new BigInteger("123456789012345678901234567890")));
+        assertRoundTrips(Variant.of(new BigDecimal("3.14159265358979323846")));
+        assertRoundTrips(Variant.of("café 😀"));
+    }
+    
+    @Test public void
+    round_trips_nested_iterables_and_columns() throws IOException {
+        Variant nested = VariantCodec.decode(VariantCodec.encode(Variant.of("a", Variant.of(1, 2, 3), Variant.ofVariants())));
+        assertThat(nested.toString(), is("a,1,2,3,"));
+        assertThat(nested.asArrayOf(Variant.class)[1].asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+        
+        assertRoundTrips(VariantArray.ofInts(1, -2, 300000));
+        assertRoundTrips(VariantArray.ofStrings("x", "y"));
+        
+        Variant decoded = VariantCodec.decode(VariantCodec.encode(VariantArray.ofDoubles(1.0, 2.5)));
+        assertThat(decoded.asDoubleArray(), equalTo(new double[] { 1.0, 2.5 }));
+    }
+    
+    @Test public void
+    round_trips_maps_with_nested_values() throws IOException {
+        VariantMap map = new VariantMap();
+        map.put("count", 42);
+        map.put(7, Variant.of("a", "b"));
+        
+        VariantMap decoded = VariantCodec.decodeMap(VariantCodec.encode(map));
+        
+        assertThat(decoded.size(), is(2));
+        assertThat(decoded.get("count").intValue(), is(42));
+        assertThat(decoded.get(7).toString(), is("a,b"));
+    }
+    
+    @Test public void
+    streams_several_values_through_one_writer_and_reader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        VariantWriter writer = new VariantWriter(bytes);
+        String longString = Strings.repeat("é", 10000);
+        writer.write(Variant.of(longString)).write(Variant.ofInt(1));
+        writer.close();
+        
+        VariantReader reader = new VariantReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(reader.read().toString(), is(longString));
+        assertThat(reader.read().intValue(), is(1));
+        assertThat(reader.hasNext(), is(false));
+    }
+    
+    @Test(expected=IOException.class) public void
+    rejects_unknown_tags() throws IOException {
+        byte[] bytes = VariantCodec.encode(Variant.ofInt(1));
+        bytes[bytes.length - 2] = (byte) 0x7F;
+        VariantCodec.decode(bytes);
+    }
+    
+    @Test(expected=IOException.class) public void
+    rejects_truncated_input() throws IOException {
+        byte[] bytes = VariantCodec.encode(Variant.of("truncated"));
+        VariantCodec.decode(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+    
+    @Test(expected=IOException.class) public void
+    rejects_columns_longer_than_the_remaining_input() throws IOException {
+        VariantCodec.decode(withOversizedLength(VariantCodec.TAG_INT_ARRAY));
+    }
+    
+    @Test(expected=IOException.class) public void
+    rejects_strings_longer_than_the_remaining_input() throws IOException {
+        VariantCodec.decode(withOversizedLength(VariantCodec.TAG_STRING));
+    }
+    
+    @Test public void
+    rejects_oversized_lengths_in_streams_without_allocating_them_up_front() {
+        int[] tags = { VariantCodec.TAG_STRING, VariantCodec.TAG_INT_ARRAY, VariantCodec.TAG_LONG_ARRAY,
+                       VariantCodec.TAG_DOUBLE_ARRAY, VariantCodec.TAG_STRING_ARRAY, VariantCodec.TAG_LIST, VariantCodec.TAG_MAP };
+        for (int tag : tags) {
+            try {
+                new VariantReader(new ByteArrayInputStream(withOversizedLength(tag))).read();
+                throw new AssertionError("Expected an IOException for tag " + tag);
+            } catch (IOException e) {
+                assertThat(e.getMessage(), is("Unexpected end of stream"));
+            }
+        }
+    }
+    
+    private static byte[] withOversizedLength(int tag) {
+        return new byte[] { 'V', 'A', 'R', VariantCodec.FORMAT_VERSION, (byte) tag, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2 };
+    }
+    
+    private static void assertRoundTrips(Variant variant) throws IOException {
+        Variant decoded = VariantCodec.decode(VariantCodec.encode(variant));
+        assertThat(decoded, is(variant));
+        assertThat(decoded.valueClass(), equalTo((Object) variant.valueClass()));
+    }
+}
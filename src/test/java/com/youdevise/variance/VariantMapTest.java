@@ -1,9 +1,21 @@
 package com.youdevise.variance;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 public class VariantMapTest {
 
@@ -26,4 +38,130 @@ public class VariantMapTest {
         assertThat(map.get("The meaning of life").intValue(), is(42));
     }
     
+    @Test public void
+    matches_raw_keys_against_variant_keys_and_vice_versa() {
+        VariantMap map = new VariantMap();
+        
+        map.put(12, "twelve");
+        map.put(Variant.ofInt(13), "thirteen");
+        
+        assertThat(map.get(Variant.of(12)).toString(), is("twelve"));
+        assertThat(map.get(13).toString(), is("thirteen"));
+        assertThat(map.get(14), is(nullValue()));
+    }
+    
+    @Test public void
+    replaces_values_for_equal_keys() {
+        VariantMap map = new VariantMap();
+        
+        assertThat(map.put("key", 1), is(nullValue()));
+        assertThat(map.put(Variant.of("key"), 2).intValue(), is(1));
+        
+        assertThat(map.size(), is(1));
+        assertThat(map.get("key").intValue(), is(2));
+    }
+    
+    @Test public void
+    holds_many_entries_and_removes_them_again() {
+        VariantMap map = new VariantMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertThat(map.remove("key" + i).intValue(), is(i));
+        }
+        
+        assertThat(map.size(), is(500));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(map.containsKey("key" + i), is(i % 2 == 1));
+        }
+        assertThat(map.containsValue(999), is(true));
+        assertThat(map.containsValue(998), is(false));
+    }
+    
+    @Test public void
+    exposes_entries_as_variants() {
+        VariantMap map = new VariantMap();
+        map.put("key", 42);
+        
+        Map.Entry<Object, Object> entry = Iterables.getOnlyElement(map.entrySet());
+        assertThat(entry.getKey(), is((Object) Variant.of("key")));
+        assertThat(entry.getValue(), is((Object) Variant.of(42)));
+        assertThat(map, is((Map<Object, Object>) ImmutableMap.<Object, Object>of(Variant.of("key"), Variant.of(42))));
+    }
+    
+    @Test public void
+    removes_entries_through_its_views() {
+        VariantMap map = new VariantMap();
+        map.put("one", 1);
+        map.put("two", 2);
+        map.put("three", 3);
+        
+        assertThat(map.keySet().remove("one"), is(true));
+        assertThat(map.values().remove(Variant.of(2)), is(true));
+        
+        assertThat(map.size(), is(1));
+        assertThat(map.containsKey("three"), is(true));
+    }
+    
+    @Test public void
+    writes_entry_values_back_to_the_map() {
+        VariantMap map = new VariantMap();
+        map.put("key", 1);
+        
+        Map.Entry<Object, Object> entry = Iterables.getOnlyElement(map.entrySet());
+        assertThat(entry.setValue(2), is((Object) Variant.of(1)));
+        
+        assertThat(entry.getValue(), is((Object) Variant.of(2)));
+        assertThat(map.get("key").intValue(), is(2));
+    }
+    
+    @Test public void
+    visits_every_entry_exactly_once_while_removing_through_the_iterator() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            VariantMap map = new VariantMap();
+            Set<Integer> expected = Sets.newHashSet();
+            for (int i = 0; i < 1 + random.nextInt(40); i++) {
+                int key = random.nextInt(1000);
+                map.put(key, key);
+                expected.add(key);
+            }
+            
+            Set<Integer> kept = Sets.newHashSet();
+            List<Integer> visited = Lists.newArrayList();
+            for (Iterator<Map.Entry<Object, Object>> entries = map.entrySet().iterator(); entries.hasNext();) {
+                int key = ((Variant) entries.next().getKey()).intValue();
+                visited.add(key);
+                if (random.nextBoolean()) {
+                    entries.remove();
+                } else {
+                    kept.add(key);
+                }
+            }
+            
+            assertThat(visited.size(), is(expected.size()));
+            assertThat(Sets.newHashSet(visited), is(expected));
+            assertThat(map.size(), is(kept.size()));
+            for (int key : expected) {
+                assertThat(map.containsKey(key), is(kept.contains(key)));
+            }
+        }
+    }
+    
+    @Test public void
+    matches_primitive_and_array_keys_against_their_raw_equivalents() {
+        VariantMap map = new VariantMap();
+        map.put(new int[] { 1, 2 }, "ints");
+        map.put(Variant.ofLong(3L), "long");
+        map.put(2.5, "double");
+        
+        assertThat(map.get(VariantArray.ofInts(1, 2)).toString(), is("ints"));
+        assertThat(map.get(new int[] { 1, 2 }).toString(), is("ints"));
+        assertThat(map.get(new long[] { 1L, 2L }), is(nullValue()));
+        assertThat(map.get(3L).toString(), is("long"));
+        assertThat(map.get(Variant.ofDouble(2.5)).toString(), is("double"));
+        assertThat(map.get(Variant.ofInt(3)), is(nullValue()));
+    }
+    
 }
@@ -1,5 +1,12 @@
 package com.youdevise.variance;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
 import org.hamcrest.Matchers;
 import org.jmock.Expectations;
 import org.jmock.Mockery;
@@ -70,6 +77,13 @@ public class VariantTest {
         ImplicitTypeConversions.exit();
     }
     
+    @Test public void
+    variants_share_a_single_default_context() {
+        assertThat(Variant.of(1).context() == Variant.of("1").context(), is(true));
+        assertThat(Variant.of(1).isImplicitlyBound(), is(true));
+        assertThat(Variant.of(1).in(contextWithMarker("custom")).isImplicitlyBound(), is(false));
+    }
+    
     @Test public void
     can_be_bound_to_custom_context() {
         Variant variant = Variant.of(1).in(contextWithMarker("custom"));
@@ -86,14 +100,16 @@ public class VariantTest {
         ImplicitTypeConversions.exit();
     }
     
+    @SuppressWarnings("unchecked")
     @Test public void
     uses_context_to_convert_value_to_requested_type() {
         final TypeConversionContext mockCtx = context.mock(TypeConversionContext.class);
+        final Function<Integer, String> converter = context.mock(Function.class);
         
         context.checking(new Expectations() {{
-            allowing(mockCtx).canConvert(12, String.class); will(returnValue(true));
+            oneOf(mockCtx).conversionFor(Integer.class, String.class); will(returnValue(Conversion.applying(converter)));
             
-            oneOf(mockCtx).convert(12, String.class); will(returnValue("The number 12"));
+            oneOf(converter).apply(12); will(returnValue("The number 12"));
         }});
         
         Variant variant = Variant.of(12).in(mockCtx);
@@ -119,6 +135,52 @@ public class VariantTest {
         assertThat(variant.shortValue(), is((short) 12));
     }
     
+    @Test public void
+    numeric_accessors_use_primitive_converters_where_available() {
+        TypeConversionContext ctx = MatchingTypeConversionContext.builder()
+                .register(String.class, Integer.class, new PrimitiveOnlyConverter())
+                .build();
+        
+        assertThat(Variant.of("12").in(ctx).intValue(), is(13));
+    }
+    
+    private static final class PrimitiveOnlyConverter implements Function<String, Integer>, ToIntConverter<String> {
+        @Override public Integer apply(String string) { throw new UnsupportedOperationException("boxed path used"); }
+        @Override public int applyAsInt(String string) { return Integer.parseInt(string) + 1; }
+    }
+    
+    @Test public void
+    primitive_backed_variants_behave_like_their_boxed_equivalents() {
+        assertThat(Variant.ofInt(12), equalTo(Variant.of(12)));
+        assertThat(Variant.of(12L), equalTo(Variant.ofLong(12L)));
+        assertThat(Variant.ofDouble(1.5).hashCode(), is(Variant.of(1.5).hashCode()));
+        assertThat(Variant.ofBoolean(true).get(), Matchers.<Object>equalTo(true));
+        assertThat(Variant.ofLong(12L).valueClass(), equalTo((Object) Long.class));
+    }
+    
+    @Test public void
+    primitive_backed_variants_convert_through_their_context() {
+        assertThat(Variant.ofDouble(12.5).intValue(), is(12));
+        assertThat(Variant.ofInt(12).as(String.class), is("12"));
+        assertThat(Variant.ofInt(1).in(contextWithMarker("custom")).toString(), is("custom"));
+        assertThat(Variant.ofBoolean(false).toString(), is("false"));
+    }
+    
+    @Test public void
+    primitive_backed_variants_convert_numbers_like_their_boxed_equivalents() {
+        assertThat(Variant.ofInt(21).in(doublingContext()).doubleValue(), is(42.0));
+        assertThat(Variant.of(21).in(doublingContext()).doubleValue(), is(42.0));
+        assertThat(Variant.ofInt(21).in(doublingContext()).intValue(), is(21));
+        
+        ConversionScope scope = ImplicitTypeConversions.enterNewScope(doublingContext());
+        try {
+            assertThat(Variant.ofInt(21).doubleValue(), is(42.0));
+        } finally {
+            scope.close();
+        }
+        assertThat(Variant.ofInt(21).doubleValue(), is(21.0));
+    }
+    
     @Test public void
     can_return_an_array() {
         Variant variant = Variant.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
@@ -186,15 +248,124 @@ public class VariantTest {
         assertThat(Iterables.getFirst(transferred.asIterableOf(Variant.class), null).toString(), is("parent"));
     }
     
+    @Test public void
+    returns_values_that_are_already_of_the_target_type_without_consulting_its_context() {
+        final TypeConversionContext mockCtx = context.mock(TypeConversionContext.class);
+        
+        Variant variant = Variant.of("A string").in(mockCtx);
+        
+        assertThat(variant.as(String.class), is("A string"));
+        assertThat(variant.as(CharSequence.class), Matchers.<CharSequence>equalTo("A string"));
+        context.assertIsSatisfied();
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test public void
+    remembers_the_last_conversion_it_looked_up() {
+        final TypeConverterRegistry registry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(registry).findConverter(Integer.class, String.class); will(returnValue((Function) contextMarker("cached")));
+        }});
+        
+        Variant variant = Variant.of(12).in(new MatchingTypeConversionContext(registry));
+        
+        assertThat(variant.as(String.class), is("cached"));
+        assertThat(variant.as(String.class), is("cached"));
+        context.assertIsSatisfied();
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test public void
+    converting_elements_leaves_the_remembered_conversion_alone() {
+        final TypeConverterRegistry registry = context.mock(TypeConverterRegistry.class);
+        
+        context.checking(new Expectations() {{
+            oneOf(registry).findConverter(StringBuilder.class, int[].class); will(returnValue(null));
+            oneOf(registry).findConverter(StringBuilder.class, Iterable.class); will(returnValue((Function) splitter()));
+            oneOf(registry).findConverter(String.class, Integer.class); will(returnValue((Function) TypeConversions.stringToInt));
+        }});
+        
+        Variant variant = Variant.of(new StringBuilder("1,2,3")).in(new MatchingTypeConversionContext(registry));
+        
+        assertThat(variant.asIntArray(), equalTo(new int[] { 1, 2, 3 }));
+        assertThat(Iterables.size(variant.as(Iterable.class)), is(3));
+        context.assertIsSatisfied();
+    }
+    
+    @Test public void
+    joins_collections_whose_reported_size_would_overflow_the_length_estimate() {
+        Collection<String> parts = new AbstractCollection<String>() {
+            @Override public Iterator<String> iterator() { return Arrays.asList("a", "b").iterator(); }
+            @Override public int size() { return Integer.MAX_VALUE / 2; }
+        };
+        
+        assertThat(TypeConversions.iterableToString.apply(parts), is("a,b"));
+    }
+    
+    @Test public void
+    forgets_remembered_conversions_when_the_implicit_context_changes() {
+        Variant variant = Variant.of(12);
+        assertThat(variant.as(String.class), is("12"));
+        
+        ImplicitTypeConversions.enterNew(contextWithMarker("implicit"));
+        try {
+            assertThat(variant.as(String.class), is("implicit"));
+        } finally {
+            ImplicitTypeConversions.exit();
+        }
+        
+        assertThat(variant.as(String.class), is("12"));
+    }
+    
+    @Test public void
+    appends_its_string_form_to_an_appendable() throws IOException {
+        StringBuilder builder = new StringBuilder("values: ");
+        
+        Variant.of(1, "two", 3.5).appendTo(builder);
+        
+        assertThat(builder.toString(), is("values: 1,two,3.5"));
+    }
+    
+    @Test public void
+    streams_nested_variants_in_their_own_contexts() throws IOException {
+        Variant parent = Variant.of(Variant.of(1), Variant.of(2)).in(contextWithMarker("bound"));
+        StringWriter writer = new StringWriter();
+        
+        parent.appendTo(writer);
+        
+        assertThat(writer.toString(), is("bound,bound"));
+        assertThat(parent.toString(), is("bound,bound"));
+    }
+    
+    @Test public void
+    appends_values_using_custom_string_conversions() throws IOException {
+        assertThat(Variant.of(12).in(contextWithMarker("custom")).appendTo(new StringBuilder()).toString(), is("custom"));
+    }
+    
     private Function<Integer, String> contextMarker(final String marker) {
         return new Function<Integer, String>() {
             @Override public String apply(Integer arg0) { return marker; }
         };
     }
     
+    private TypeConversionContext doublingContext() {
+        return MatchingTypeConversionContext.builder()
+                .register(Integer.class, Double.class, new Function<Integer, Double>() {
+                    @Override public Double apply(Integer arg0) { return arg0 * 2.0; }
+                })
+                .build();
+    }
+    
     private TypeConversionContext contextWithMarker(String marker) {
         return MatchingTypeConversionContext.builder()
                 .register(Integer.class, String.class, contextMarker(marker))
                 .build();
     }
+    
+    private Function<StringBuilder, Iterable<String>> splitter() {
+        return new Function<StringBuilder, Iterable<String>>() {
+            @Override public Iterable<String> apply(StringBuilder arg0) { return DelimitedSequence.on(arg0, ','); }
+        };
+    }
 }
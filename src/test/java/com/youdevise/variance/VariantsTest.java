@@ -0,0 +1,86 @@
+package com.youdevise.variance;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class VariantsTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    
+    @After public void
+    shut_down_executor() {
+        executor.shutdownNow();
+    }
+    
+    @Test public void
+    converts_all_variants_in_parallel_preserving_order() {
+        int size = Variants.MINIMUM_CHUNK_SIZE * 8 + 17;
+        List<Variant> variants = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            variants.add(Variant.of(Integer.toString(i)));
+        }
+        
+        Double[] results = Variants.convertAll(variants, Double.class, executor);
+        
+        assertThat(results.length, is(size));
+        for (int i = 0; i < size; i++) {
+            assertThat(results[i], equalTo(Double.valueOf(i)));
+        }
+    }
+    
+    @Test public void
+    converts_each_variant_in_its_own_context() {
+        TypeConversionContext ctx = MatchingTypeConversionContext.builder()
+                .register(Integer.class, String.class, new Function<Integer, String>() {
+                    @Override public String apply(Integer arg0) { return "#" + arg0; }
+                })
+                .build();
+        List<Variant> variants = Lists.newArrayList(Variant.of(1), Variant.of(2).in(ctx), Variant.of(3));
+        
+        assertThat(Variants.convertAll(variants, String.class, executor), equalTo(new String[] { "1", "#2", "3" }));
+        assertThat(Variants.convertAll(variants, String.class), equalTo(new String[] { "1", "#2", "3" }));
+    }
+    
+    @Test public void
+    converts_in_parallel_within_the_callers_implicit_context() {
+        TypeConversionContext negating = MatchingTypeConversionContext.builder()
+                .register(String.class, Integer.class, new Function<String, Integer>() {
+                    @Override public Integer apply(String arg0) { return -Integer.parseInt(arg0); }
+                })
+                .build();
+        List<Variant> variants = Lists.newArrayList(Variant.of("1"), Variant.of("2"));
+        
+        ConversionScope scope = ImplicitTypeConversions.enterNewScope(negating);
+        try {
+            assertThat(Variants.convertAll(variants, Integer.class, executor), equalTo(new Integer[] { -1, -2 }));
+            assertThat(Variants.convertAll(variants, Integer.class), equalTo(new Integer[] { -1, -2 }));
+        } finally {
+            scope.close();
+        }
+    }
+    
+    @Test(expected=IllegalArgumentException.class) public void
+    propagates_conversion_failures() {
+        List<Variant> variants = Lists.newArrayList(Variant.of(1), Variant.of(new Object()));
+        
+        Variants.convertAll(variants, Integer.class, executor);
+    }
+    
+    @Test public void
+    splits_work_into_bounded_chunks() {
+        assertThat(Variants.chunkCount(10, 4), is(1));
+        assertThat(Variants.chunkCount(Variants.MINIMUM_CHUNK_SIZE * 3, 4), is(3));
+        assertThat(Variants.chunkCount(Integer.MAX_VALUE, 4), is(16));
+    }
+}